@@ -0,0 +1,7 @@
+-- Coordinates for radius and bounding-box search (PropertyGeoIndex). Both
+-- stay NULL for listings that have not been geocoded; those are left out
+-- of geographic searches and still appear everywhere else.
+
+ALTER TABLE properties
+    ADD latitude DOUBLE,
+    ADD longitude DOUBLE;
@@ -0,0 +1,12 @@
+-- Property ids moved from the identity column to the pooled "property_seq"
+-- generator (allocation size 50). MySQL has no sequences, so Hibernate keeps
+-- the next value in a one-row table. Seed it one block past the highest id,
+-- as PropertySequenceAligner would; the aligner only advances an existing row.
+-- The AUTO_INCREMENT on properties.id can stay: Hibernate now supplies the ids.
+
+CREATE TABLE property_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO property_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM properties;
@@ -0,0 +1,25 @@
+-- Hourly and daily counts of new listings, inquiries and signups
+-- (AnalyticsService). analytics_buckets holds one row per metric,
+-- granularity and bucket start; analytics_watermarks records, per metric,
+-- up to when rows have been counted. The created_at indexes serve the
+-- rollup's range scans over the source tables.
+
+CREATE TABLE analytics_buckets (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    metric ENUM('LISTINGS', 'INQUIRIES', 'SIGNUPS') NOT NULL,
+    granularity ENUM('HOUR', 'DAY') NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_analytics_bucket UNIQUE (metric, granularity, bucket_start)
+) ENGINE=InnoDB;
+
+CREATE TABLE analytics_watermarks (
+    metric ENUM('LISTINGS', 'INQUIRIES', 'SIGNUPS') NOT NULL,
+    processed_until DATETIME(6) NOT NULL,
+    PRIMARY KEY (metric)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_properties_created_at ON properties (created_at);
+CREATE INDEX idx_inquiries_created_at ON inquiries (created_at);
+CREATE INDEX idx_users_created_at ON users (created_at);
@@ -0,0 +1,5 @@
+-- UserAccessRegistry polls users changed since its last refresh
+-- (jwt.user-access-refresh, every 10 seconds by default); without this
+-- index every poll scans the whole table.
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
@@ -0,0 +1,177 @@
+package com.dreamhome.cache;
+
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Cache key for a public listing query. Parameters are normalized so that
+ * requests differing only in case, whitespace, tag order or number scale
+ * ("1e5" vs "100000") share an entry.
+ */
+public final class ListingQuery {
+
+    enum Kind { PUBLIC, FEATURED, FILTER }
+
+    private final Kind kind;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final PropertyType type;
+    private final Integer minBedrooms;
+    private final Integer maxBedrooms;
+    private final String city;
+    private final List<String> features;
+    private final boolean matchAllFeatures;
+    private final int page;
+    private final int size;
+    private final String sortBy;
+    private final boolean descending;
+    private final boolean cards;
+
+    private ListingQuery(Kind kind, BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+                         Integer minBedrooms, Integer maxBedrooms, String city,
+                         List<String> features, boolean matchAllFeatures,
+                         int page, int size, String sortBy, String sortDir) {
+        this.kind = kind;
+        this.minPrice = minPrice == null ? null : minPrice.stripTrailingZeros();
+        this.maxPrice = maxPrice == null ? null : maxPrice.stripTrailingZeros();
+        this.type = type;
+        this.minBedrooms = minBedrooms;
+        this.maxBedrooms = maxBedrooms;
+        this.city = city == null ? null : city.toLowerCase();
+        TreeSet<String> tags = new TreeSet<>();
+        if (features != null) {
+            for (String feature : features) {
+                String tag = feature.trim().toLowerCase(Locale.ROOT);
+                if (!tag.isEmpty()) {
+                    tags.add(tag);
+                }
+            }
+        }
+        this.features = new ArrayList<>(tags);
+        // With fewer than two tags "all" and "any" are the same query
+        this.matchAllFeatures = matchAllFeatures || this.features.size() < 2;
+        this.page = page;
+        this.size = size;
+        this.sortBy = sortBy;
+        this.descending = sortDir != null && sortDir.equalsIgnoreCase("desc");
+        this.cards = false;
+    }
+
+    private ListingQuery(ListingQuery query, boolean cards) {
+        this.kind = query.kind;
+        this.minPrice = query.minPrice;
+        this.maxPrice = query.maxPrice;
+        this.type = query.type;
+        this.minBedrooms = query.minBedrooms;
+        this.maxBedrooms = query.maxBedrooms;
+        this.city = query.city;
+        this.features = query.features;
+        this.matchAllFeatures = query.matchAllFeatures;
+        this.page = query.page;
+        this.size = query.size;
+        this.sortBy = query.sortBy;
+        this.descending = query.descending;
+        this.cards = cards;
+    }
+
+    public static ListingQuery available(int page, int size, String sortBy, String sortDir) {
+        return new ListingQuery(Kind.PUBLIC, null, null, null, null, null, null, null, true,
+                page, size, sortBy, sortDir);
+    }
+
+    public static ListingQuery featured() {
+        return new ListingQuery(Kind.FEATURED, null, null, null, null, null, null, null, true,
+                0, 0, null, null);
+    }
+
+    public static ListingQuery filter(BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+                                      Integer minBedrooms, Integer maxBedrooms, String city,
+                                      List<String> features, boolean matchAllFeatures,
+                                      int page, int size, String sortBy, String sortDir) {
+        return new ListingQuery(Kind.FILTER, minPrice, maxPrice, type, minBedrooms, maxBedrooms, city,
+                features, matchAllFeatures, page, size, sortBy, sortDir);
+    }
+
+    /** The same query answered with listing cards instead of full DTOs. */
+    ListingQuery asCards() {
+        return new ListingQuery(this, true);
+    }
+
+    /**
+     * Whether a listing in this state belongs to the query's result set. If it
+     * does before or after a mutation, the cached page (or its total) may change.
+     */
+    boolean matches(ListingState listing) {
+        if (listing == null) {
+            return false;
+        }
+        if (kind == Kind.FEATURED) {
+            return listing.isFeatured();
+        }
+        if (listing.getStatus() != PropertyStatus.AVAILABLE) {
+            return false;
+        }
+        if (kind == Kind.PUBLIC) {
+            return true;
+        }
+
+        BigDecimal price = listing.getPrice();
+        if (minPrice != null && (price == null || price.compareTo(minPrice) < 0)) {
+            return false;
+        }
+        if (maxPrice != null && (price == null || price.compareTo(maxPrice) > 0)) {
+            return false;
+        }
+        if (type != null && type != listing.getType()) {
+            return false;
+        }
+        Integer bedrooms = listing.getBedrooms();
+        if (minBedrooms != null && (bedrooms == null || bedrooms < minBedrooms)) {
+            return false;
+        }
+        if (maxBedrooms != null && (bedrooms == null || bedrooms > maxBedrooms)) {
+            return false;
+        }
+        if (city != null && (listing.getCity() == null || !listing.getCity().contains(city))) {
+            return false;
+        }
+        if (features.isEmpty()) {
+            return true;
+        }
+        if (matchAllFeatures) {
+            return listing.getFeatures().containsAll(features);
+        }
+        for (String feature : features) {
+            if (listing.getFeatures().contains(feature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ListingQuery)) return false;
+        ListingQuery that = (ListingQuery) o;
+        return kind == that.kind && matchAllFeatures == that.matchAllFeatures && page == that.page
+                && size == that.size && descending == that.descending && cards == that.cards
+                && Objects.equals(minPrice, that.minPrice) && Objects.equals(maxPrice, that.maxPrice)
+                && type == that.type && Objects.equals(minBedrooms, that.minBedrooms)
+                && Objects.equals(maxBedrooms, that.maxBedrooms) && Objects.equals(city, that.city)
+                && features.equals(that.features) && Objects.equals(sortBy, that.sortBy);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, minPrice, maxPrice, type, minBedrooms, maxBedrooms, city,
+                features, matchAllFeatures, page, size, sortBy, descending, cards);
+    }
+}
@@ -0,0 +1,64 @@
+package com.dreamhome.cache;
+
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The attributes of a listing that decide which cached queries it can appear
+ * in, captured before and after a mutation so both sides can be invalidated.
+ */
+public final class ListingState {
+
+    private final Long id;
+    private final PropertyStatus status;
+    private final boolean featured;
+    private final BigDecimal price;
+    private final PropertyType type;
+    private final Integer bedrooms;
+    private final String city;
+    private final Set<String> features;
+
+    private ListingState(Property property) {
+        this.id = property.getId();
+        this.status = property.getStatus();
+        this.featured = Boolean.TRUE.equals(property.getIsFeatured());
+        this.price = property.getPrice();
+        this.type = property.getType();
+        this.bedrooms = property.getBedrooms();
+        this.city = property.getCity() == null ? null : property.getCity().toLowerCase();
+        Set<String> tags = new HashSet<>();
+        if (property.getFeatures() != null) {
+            for (String feature : property.getFeatures()) {
+                tags.add(feature.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        this.features = Collections.unmodifiableSet(tags);
+    }
+
+    public static ListingState of(Property property) {
+        return property == null ? null : new ListingState(property);
+    }
+
+    public Long getId() { return id; }
+
+    public PropertyStatus getStatus() { return status; }
+
+    public boolean isFeatured() { return featured; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public PropertyType getType() { return type; }
+
+    public Integer getBedrooms() { return bedrooms; }
+
+    public String getCity() { return city; }
+
+    public Set<String> getFeatures() { return features; }
+}
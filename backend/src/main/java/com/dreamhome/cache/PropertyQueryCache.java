@@ -0,0 +1,121 @@
+package com.dreamhome.cache;
+
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.dto.PropertyDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bounded cache of the DTO results (full or card view) of /properties/public,
+ * /featured and /filter, keyed by {@link ListingQuery}. Entries expire after a TTL, but
+ * correctness comes from {@link #invalidate}: PropertyService reports each
+ * listing's state before and after every mutation, and every entry that
+ * contains the listing or whose criteria match either state is evicted.
+ *
+ * <p>Hit/miss/eviction counts are published as the {@code cache.*} meters
+ * tagged {@code cache=propertyQueries}.
+ */
+@Component
+public class PropertyQueryCache {
+
+    @Value("${cache.property-queries.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${cache.property-queries.ttl:5m}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<ListingQuery, Entry> cache;
+
+    // Bumped by every invalidation; a load that overlapped one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "propertyQueries");
+    }
+
+    public Page<PropertyDto> getPage(ListingQuery query, Supplier<Page<PropertyDto>> loader) {
+        return get(query, loader, page -> page.getContent().stream().map(PropertyDto::getId));
+    }
+
+    public List<PropertyDto> getList(ListingQuery query, Supplier<List<PropertyDto>> loader) {
+        return get(query, loader, list -> list.stream().map(PropertyDto::getId));
+    }
+
+    public Page<PropertyCardDto> getCardPage(ListingQuery query, Supplier<Page<PropertyCardDto>> loader) {
+        return get(query.asCards(), loader, page -> page.getContent().stream().map(PropertyCardDto::getId));
+    }
+
+    public List<PropertyCardDto> getCardList(ListingQuery query, Supplier<List<PropertyCardDto>> loader) {
+        return get(query.asCards(), loader, list -> list.stream().map(PropertyCardDto::getId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(ListingQuery query, Supplier<T> loader, Function<T, Stream<Long>> ids) {
+        Entry cached = cache.getIfPresent(query);
+        if (cached != null) {
+            return (T) cached.value;
+        }
+
+        long before = generation.get();
+        T value = loader.get();
+        Entry loaded = new Entry(value, ids.apply(value).collect(Collectors.toSet()));
+        // Checked and stored atomically: an invalidation either happens first and the load is
+        // dropped, or happens after and its sweep finds the entry
+        cache.asMap().compute(query, (key, current) -> generation.get() == before ? loaded : current);
+        return value;
+    }
+
+    /**
+     * Evicts every entry the mutation may have changed. {@code before} is null
+     * for a creation and {@code after} null for a deletion.
+     */
+    public void invalidate(ListingState before, ListingState after) {
+        generation.incrementAndGet();
+        Long id = after != null ? after.getId() : before != null ? before.getId() : null;
+        cache.asMap().entrySet().removeIf(entry ->
+                (id != null && entry.getValue().ids.contains(id))
+                        || entry.getKey().matches(before)
+                        || entry.getKey().matches(after));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static final class Entry {
+
+        final Object value;
+        final Collection<Long> ids;
+
+        Entry(Object value, Collection<Long> ids) {
+            this.value = value;
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dreamhome.config;
+
+import com.dreamhome.entity.Property;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Property ids used to come from an identity column and now come from the
+ * pooled "property_seq" generator. On a database that already holds listings,
+ * a fresh generator would hand out ids that are taken, so at startup (after
+ * the schema update, before any runner inserts data) it is moved past the
+ * highest existing id. On MySQL the sequence is emulated by a one-row table.
+ */
+@Component
+public class PropertySequenceAligner {
+
+    private static final String SEQUENCE = "property_seq";
+
+    // Injected so the schema, including the sequence, exists before align() runs
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM properties", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out (value - allocationSize, value], so the next
+        // value must exceed the highest id by a whole block
+        long target = maxId + Property.ID_ALLOCATION_SIZE + 1;
+
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            Long next = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE), Long.class);
+            if (next != null && next < target) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + target);
+                System.out.println("Property id sequence restarted at " + target);
+            }
+        } else if (jdbcTemplate.update("UPDATE " + SEQUENCE + " SET next_val = ? WHERE next_val < ?", target, target) > 0) {
+            System.out.println("Property id sequence table moved to " + target);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.dreamhome.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route request limits from {@code rate-limit.*}. A route allows
+ * {@code capacity} requests in a burst and refills at {@code per-minute}
+ * requests per minute, separately for every client IP and every
+ * authenticated user.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Duration idleEviction = Duration.ofMinutes(5);
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public static class Route {
+
+        // Path below the context path; a trailing /** matches the whole subtree
+        private String path;
+        // Null matches every method
+        private String method;
+        private int capacity;
+        private int perMinute;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getPerMinute() { return perMinute; }
+        public void setPerMinute(int perMinute) { this.perMinute = perMinute; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getIdleEviction() { return idleEviction; }
+    public void setIdleEviction(Duration idleEviction) { this.idleEviction = idleEviction; }
+
+    public Map<String, Route> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Route> routes) { this.routes = routes; }
+}
@@ -1,8 +1,12 @@
 package com.dreamhome.config;
 
+import com.dreamhome.security.BoundedPasswordEncoder;
 import com.dreamhome.security.JwtAuthenticationEntryPoint;
 import com.dreamhome.security.JwtAuthenticationFilter;
+import com.dreamhome.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,13 +16,15 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -33,12 +39,35 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.password-hashing.strength:10}")
+    private int passwordHashingStrength;
+
+    @Value("${security.password-hashing.threads:2}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:32}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password-hashing.max-wait:PT3S}")
+    private Duration passwordHashingMaxWait;
+
+    // BCrypt runs on its own bounded pool, not on request threads
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(passwordHashingStrength, passwordHashingThreads,
+                passwordHashingQueueCapacity, passwordHashingMaxWait, meterRegistry);
     }
 
     @Bean
@@ -46,6 +75,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes a password stored with another BCrypt cost on successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -80,9 +111,11 @@ public class SecurityConfig {
                         .requestMatchers("/properties/{id}").permitAll()
                         .requestMatchers("/cors-test").permitAll() // Test endpoint for CORS
                         .requestMatchers("/test/**").permitAll() // Test endpoints
+                        .requestMatchers("/actuator/health").permitAll()
 
                         // Admin endpoints - require ADMIN role
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // User endpoints - require USER or ADMIN role
                         .requestMatchers("/user/**").hasAnyRole("USER", "ADMIN")
@@ -96,6 +129,9 @@ public class SecurityConfig {
                 // Add JWT filter before UsernamePasswordAuthenticationFilter
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
 
+                // Rate limits by IP and, once the JWT filter has identified them, by user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+
                 .build();
     }
 }
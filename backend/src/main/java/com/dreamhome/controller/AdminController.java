@@ -1,8 +1,11 @@
 package com.dreamhome.controller;
 
+import com.dreamhome.dto.InquirySummaryDto;
+import com.dreamhome.dto.TimeSeriesDto;
 import com.dreamhome.dto.UserDto;
 import com.dreamhome.entity.User;
 import com.dreamhome.service.AdminService;
+import com.dreamhome.service.AnalyticsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -21,6 +24,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
     // Dashboard Statistics
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
@@ -91,10 +97,10 @@ public class AdminController {
 
     // Inquiry Management
     @GetMapping("/inquiries")
-    public ResponseEntity<Page<Map<String, Object>>> getAllInquiries(
+    public ResponseEntity<Page<InquirySummaryDto>> getAllInquiries(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        Page<Map<String, Object>> inquiries = adminService.getAllInquiries(page, size);
+        Page<InquirySummaryDto> inquiries = adminService.getAllInquiries(page, size);
         return ResponseEntity.ok(inquiries);
     }
 
@@ -106,6 +112,17 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    // Analytics (served from the hourly/daily rollups)
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<TimeSeriesDto> getTimeSeries(
+            @RequestParam String metric,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        TimeSeriesDto series = analyticsService.getTimeSeries(metric, granularity, from, to);
+        return ResponseEntity.ok(series);
+    }
+
     // System Information
     @GetMapping("/system/info")
     public ResponseEntity<Map<String, Object>> getSystemInfo() {
@@ -2,7 +2,9 @@ package com.dreamhome.controller;
 
 import com.dreamhome.dto.AuthResponse;
 import com.dreamhome.dto.LoginRequest;
+import com.dreamhome.dto.RefreshTokenRequest;
 import com.dreamhome.dto.RegisterRequest;
+import com.dreamhome.exception.PasswordHashingBusyException;
 import com.dreamhome.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,9 @@ public class AuthController {
         try {
             AuthResponse authResponse = authService.login(loginRequest);
             return ResponseEntity.ok(authResponse);
+        } catch (PasswordHashingBusyException e) {
+            // Answered with 429 and Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new SimpleErrorResponse("Login failed", e.getMessage()));
@@ -32,12 +37,27 @@ public class AuthController {
         try {
             AuthResponse authResponse = authService.register(registerRequest);
             return ResponseEntity.ok(authResponse);
+        } catch (PasswordHashingBusyException e) {
+            // Answered with 429 and Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new SimpleErrorResponse("Registration failed", e.getMessage()));
         }
     }
 
+    // An invalid refresh token is answered with 401 by GlobalExceptionHandler
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(authService.refresh(refreshTokenRequest));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        authService.logout(refreshTokenRequest);
+        return ResponseEntity.noContent().build();
+    }
+
     // Inner class for simple error responses
     public static class SimpleErrorResponse {
         private String error;
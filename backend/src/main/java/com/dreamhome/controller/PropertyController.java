@@ -1,16 +1,28 @@
 package com.dreamhome.controller;
 
+import com.dreamhome.dto.CursorPage;
+import com.dreamhome.dto.ImportReport;
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.dto.PropertyClusterDto;
 import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.dto.PropertyFacetsResponse;
+import com.dreamhome.dto.SuggestionDto;
 import com.dreamhome.entity.PropertyStatus;
 import com.dreamhome.entity.PropertyType;
+import com.dreamhome.service.PropertyImportService;
 import com.dreamhome.service.PropertyService;
+import com.dreamhome.util.PropertyFileFormat;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -21,6 +33,9 @@ public class PropertyController {
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private PropertyImportService propertyImportService;
+
     // Public endpoints (no authentication required)
     @GetMapping("/public")
     public ResponseEntity<Page<PropertyDto>> getAvailableProperties(
@@ -33,6 +48,30 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    // Card view: only what a listing card shows (title, price, city, beds/baths, first image)
+    @GetMapping(value = "/public", params = {"view=card", "!cursor"})
+    public ResponseEntity<Page<PropertyCardDto>> getAvailablePropertyCards(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        Page<PropertyCardDto> properties = propertyService.getAvailablePropertyCards(page, size, sortBy, sortDir);
+        return ResponseEntity.ok(properties);
+    }
+
+    // Keyset mode for infinite scroll: pass an empty cursor for the first slice, then nextCursor
+    @GetMapping(value = "/public", params = "cursor")
+    public ResponseEntity<CursorPage<PropertyDto>> getAvailablePropertiesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        CursorPage<PropertyDto> properties = propertyService.getAvailablePropertiesByCursor(cursor, size, sortBy, sortDir);
+        return ResponseEntity.ok(properties);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PropertyDto> getPropertyById(@PathVariable Long id) {
         PropertyDto property = propertyService.getPropertyById(id);
@@ -45,13 +84,31 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping(value = "/featured", params = "view=card")
+    public ResponseEntity<List<PropertyCardDto>> getFeaturedPropertyCards() {
+        List<PropertyCardDto> properties = propertyService.getFeaturedPropertyCards();
+        return ResponseEntity.ok(properties);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<PropertyDto>> searchProperties(
             @RequestParam String keyword,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<PropertyDto> properties = propertyService.searchProperties(keyword, fuzzy, page, size);
+        return ResponseEntity.ok(properties);
+    }
+
+    @GetMapping(value = "/search", params = "view=card")
+    public ResponseEntity<Page<PropertyCardDto>> searchPropertyCards(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Page<PropertyDto> properties = propertyService.searchProperties(keyword, page, size);
+        Page<PropertyCardDto> properties = propertyService.searchPropertyCards(keyword, fuzzy, page, size);
         return ResponseEntity.ok(properties);
     }
 
@@ -63,17 +120,142 @@ public class PropertyController {
             @RequestParam(required = false) Integer minBedrooms,
             @RequestParam(required = false) Integer maxBedrooms,
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) List<String> features,
+            @RequestParam(defaultValue = "all") String featureMatch,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
 
         Page<PropertyDto> properties = propertyService.filterProperties(
-                minPrice, maxPrice, type, minBedrooms, maxBedrooms, city,
+                minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, featureMatch,
+                page, size, sortBy, sortDir);
+        return ResponseEntity.ok(properties);
+    }
+
+    @GetMapping(value = "/filter", params = {"view=card", "!cursor"})
+    public ResponseEntity<Page<PropertyCardDto>> filterPropertyCards(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(required = false) Integer minBedrooms,
+            @RequestParam(required = false) Integer maxBedrooms,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) List<String> features,
+            @RequestParam(defaultValue = "all") String featureMatch,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        Page<PropertyCardDto> properties = propertyService.filterPropertyCards(
+                minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, featureMatch,
                 page, size, sortBy, sortDir);
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping(value = "/filter", params = "cursor")
+    public ResponseEntity<CursorPage<PropertyDto>> filterPropertiesByCursor(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(required = false) Integer minBedrooms,
+            @RequestParam(required = false) Integer maxBedrooms,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) List<String> features,
+            @RequestParam(defaultValue = "all") String featureMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        CursorPage<PropertyDto> properties = propertyService.filterPropertiesByCursor(
+                minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, featureMatch,
+                cursor, size, sortBy, sortDir);
+        return ResponseEntity.ok(properties);
+    }
+
+    // Same parameters as /filter; adds per-type, bedroom, price and city counts for the sidebar
+    @GetMapping("/facets")
+    public ResponseEntity<PropertyFacetsResponse> getPropertyFacets(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(required = false) Integer minBedrooms,
+            @RequestParam(required = false) Integer maxBedrooms,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) List<String> features,
+            @RequestParam(defaultValue = "all") String featureMatch,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        PropertyFacetsResponse facets = propertyService.getPropertyFacets(
+                minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, featureMatch,
+                page, size, sortBy, sortDir);
+        return ResponseEntity.ok(facets);
+    }
+
+    // Map search: listings within radiusKm of (lat, lng), nearest first
+    @GetMapping("/near")
+    public ResponseEntity<Page<PropertyDto>> findPropertiesNear(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(required = false) Integer minBedrooms,
+            @RequestParam(required = false) Integer maxBedrooms,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<PropertyDto> properties = propertyService.findPropertiesNear(
+                lat, lng, radiusKm, minPrice, maxPrice, type, minBedrooms, maxBedrooms, page, size);
+        return ResponseEntity.ok(properties);
+    }
+
+    // Map search: listings inside the bounding box, nearest to its centre first
+    @GetMapping("/within")
+    public ResponseEntity<Page<PropertyDto>> findPropertiesWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(required = false) Integer minBedrooms,
+            @RequestParam(required = false) Integer maxBedrooms,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<PropertyDto> properties = propertyService.findPropertiesWithin(
+                minLat, minLng, maxLat, maxLng, minPrice, maxPrice, type, minBedrooms, maxBedrooms, page, size);
+        return ResponseEntity.ok(properties);
+    }
+
+    // Map markers for zoomed-out views: one aggregate per geohash cell in the viewport
+    @GetMapping("/clusters")
+    public ResponseEntity<List<PropertyClusterDto>> getPropertyClusters(
+            @RequestParam String bbox,
+            @RequestParam(defaultValue = "10") int zoom) {
+
+        List<PropertyClusterDto> clusters = propertyService.getPropertyClusters(bbox, zoom);
+        return ResponseEntity.ok(clusters);
+    }
+
+    // Typeahead for the search box, answered from memory
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+
+        List<SuggestionDto> suggestions = propertyService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     // Admin endpoints (authentication required)
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
@@ -82,6 +264,28 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    // ?format=ndjson|csv streams the whole catalogue instead of building it in memory
+    @GetMapping(value = "/admin/all", params = "format")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProperties(@RequestParam String format) {
+        PropertyFileFormat exportFormat = PropertyFileFormat.parse(format);
+        StreamingResponseBody body = out -> propertyService.exportProperties(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"properties." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Bulk import: the request body is the CSV (with header row) or NDJSON file itself
+    @PostMapping("/admin/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importProperties(@RequestParam String format, InputStream body)
+            throws IOException {
+        ImportReport report = propertyImportService.importProperties(PropertyFileFormat.parse(format), body);
+        return ResponseEntity.ok(report);
+    }
+
     @PostMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PropertyDto> createProperty(@Valid @RequestBody PropertyDto propertyDto) {
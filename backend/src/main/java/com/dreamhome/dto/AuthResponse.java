@@ -4,6 +4,9 @@ public class AuthResponse {
     
     private String token;
     private String type = "Bearer";
+    // Seconds until the access token expires
+    private Long expiresIn;
+    private String refreshToken;
     private UserDto user;
     
     // Constructors
@@ -14,6 +17,13 @@ public class AuthResponse {
         this.user = user;
     }
     
+    public AuthResponse(String token, Long expiresIn, String refreshToken, UserDto user) {
+        this.token = token;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+    
     // Getters and Setters
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
@@ -21,6 +31,12 @@ public class AuthResponse {
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
     
+    public Long getExpiresIn() { return expiresIn; }
+    public void setExpiresIn(Long expiresIn) { this.expiresIn = expiresIn; }
+    
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    
     public UserDto getUser() { return user; }
     public void setUser(UserDto user) { this.user = user; }
 }
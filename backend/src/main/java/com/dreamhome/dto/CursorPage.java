@@ -0,0 +1,38 @@
+package com.dreamhome.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. There is deliberately no total
+ * count; clients keep requesting with {@code nextCursor} while {@code hasNext}.
+ */
+public class CursorPage<T> {
+    
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    
+    // Constructors
+    public CursorPage() {}
+    
+    public CursorPage(List<T> content, int size, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+    
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
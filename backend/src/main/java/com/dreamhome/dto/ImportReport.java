@@ -0,0 +1,66 @@
+package com.dreamhome.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk listing import: row counts, throughput and the rows that
+ * were rejected, each with its 1-based record number. Only the first
+ * {@code MAX_ERRORS} errors are listed; {@code failed} counts all of them.
+ */
+public class ImportReport {
+    
+    public static final int MAX_ERRORS = 1000;
+    
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+    
+    public static class RowError {
+        
+        private int row;
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+        
+        public int getRow() { return row; }
+        public void setRow(int row) { this.row = row; }
+        
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+    
+    public void addError(int row, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+    
+    // Getters and Setters
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+    
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+    
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+}
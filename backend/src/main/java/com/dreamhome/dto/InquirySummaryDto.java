@@ -0,0 +1,93 @@
+package com.dreamhome.dto;
+
+import com.dreamhome.entity.InquiryStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the admin inquiry list. Filled by a constructor-expression query
+ * that joins the inquiry's user and property, so neither entity is loaded.
+ */
+public class InquirySummaryDto {
+    
+    private Long id;
+    private String message;
+    private InquiryStatus status;
+    private String adminResponse;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long userId;
+    private String userFirstName;
+    private String userLastName;
+    private String userEmail;
+    private Long propertyId;
+    private String propertyTitle;
+    private String propertyCity;
+    private String propertyState;
+    
+    // Constructors
+    public InquirySummaryDto() {}
+    
+    public InquirySummaryDto(Long id, String message, InquiryStatus status, String adminResponse,
+                             LocalDateTime createdAt, LocalDateTime updatedAt,
+                             Long userId, String userFirstName, String userLastName, String userEmail,
+                             Long propertyId, String propertyTitle, String propertyCity, String propertyState) {
+        this.id = id;
+        this.message = message;
+        this.status = status;
+        this.adminResponse = adminResponse;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.userId = userId;
+        this.userFirstName = userFirstName;
+        this.userLastName = userLastName;
+        this.userEmail = userEmail;
+        this.propertyId = propertyId;
+        this.propertyTitle = propertyTitle;
+        this.propertyCity = propertyCity;
+        this.propertyState = propertyState;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public InquiryStatus getStatus() { return status; }
+    public void setStatus(InquiryStatus status) { this.status = status; }
+    
+    public String getAdminResponse() { return adminResponse; }
+    public void setAdminResponse(String adminResponse) { this.adminResponse = adminResponse; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getUserFirstName() { return userFirstName; }
+    public void setUserFirstName(String userFirstName) { this.userFirstName = userFirstName; }
+    
+    public String getUserLastName() { return userLastName; }
+    public void setUserLastName(String userLastName) { this.userLastName = userLastName; }
+    
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+    
+    public Long getPropertyId() { return propertyId; }
+    public void setPropertyId(Long propertyId) { this.propertyId = propertyId; }
+    
+    public String getPropertyTitle() { return propertyTitle; }
+    public void setPropertyTitle(String propertyTitle) { this.propertyTitle = propertyTitle; }
+    
+    public String getPropertyCity() { return propertyCity; }
+    public void setPropertyCity(String propertyCity) { this.propertyCity = propertyCity; }
+    
+    public String getPropertyState() { return propertyState; }
+    public void setPropertyState(String propertyState) { this.propertyState = propertyState; }
+}
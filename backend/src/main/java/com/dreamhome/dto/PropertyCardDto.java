@@ -0,0 +1,89 @@
+package com.dreamhome.dto;
+
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What a listing card shows. Filled by constructor-expression queries in
+ * PropertyRepository, so the description and the element collections are
+ * never read; the first image is attached afterwards in one query per page.
+ */
+public class PropertyCardDto {
+    
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private PropertyType type;
+    private PropertyStatus status;
+    private String city;
+    private String state;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private Integer squareFeet;
+    private String imageUrl;
+    private Boolean isFeatured;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public PropertyCardDto() {}
+    
+    public PropertyCardDto(Long id, String title, BigDecimal price, PropertyType type, PropertyStatus status,
+                           String city, String state, Integer bedrooms, Integer bathrooms, Integer squareFeet,
+                           Boolean isFeatured, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.price = price;
+        this.type = type;
+        this.status = status;
+        this.city = city;
+        this.state = state;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.squareFeet = squareFeet;
+        this.isFeatured = isFeatured;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    
+    public PropertyType getType() { return type; }
+    public void setType(PropertyType type) { this.type = type; }
+    
+    public PropertyStatus getStatus() { return status; }
+    public void setStatus(PropertyStatus status) { this.status = status; }
+    
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    
+    public Integer getBedrooms() { return bedrooms; }
+    public void setBedrooms(Integer bedrooms) { this.bedrooms = bedrooms; }
+    
+    public Integer getBathrooms() { return bathrooms; }
+    public void setBathrooms(Integer bathrooms) { this.bathrooms = bathrooms; }
+    
+    public Integer getSquareFeet() { return squareFeet; }
+    public void setSquareFeet(Integer squareFeet) { this.squareFeet = squareFeet; }
+    
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    
+    public Boolean getIsFeatured() { return isFeatured; }
+    public void setIsFeatured(Boolean isFeatured) { this.isFeatured = isFeatured; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
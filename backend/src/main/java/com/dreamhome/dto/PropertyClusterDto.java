@@ -0,0 +1,45 @@
+package com.dreamhome.dto;
+
+import java.math.BigDecimal;
+
+public class PropertyClusterDto {
+    
+    private String geohash;
+    private int count;
+    private double latitude;
+    private double longitude;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    
+    // Constructors
+    public PropertyClusterDto() {}
+    
+    public PropertyClusterDto(String geohash, int count, double latitude, double longitude,
+                              BigDecimal minPrice, BigDecimal maxPrice) {
+        this.geohash = geohash;
+        this.count = count;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+    
+    // Getters and Setters
+    public String getGeohash() { return geohash; }
+    public void setGeohash(String geohash) { this.geohash = geohash; }
+    
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+    
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+    
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+    
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+}
@@ -24,6 +24,8 @@ public class PropertyDto {
     private Integer squareFeet;
     private Double lotSize;
     private Integer yearBuilt;
+    private Double latitude;
+    private Double longitude;
     private List<String> imageUrls;
     private List<String> features;
     private Boolean isFeatured;
@@ -79,6 +81,12 @@ public class PropertyDto {
     public Integer getYearBuilt() { return yearBuilt; }
     public void setYearBuilt(Integer yearBuilt) { this.yearBuilt = yearBuilt; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public List<String> getImageUrls() { return imageUrls; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
     
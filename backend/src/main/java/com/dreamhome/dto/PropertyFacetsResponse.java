@@ -0,0 +1,44 @@
+package com.dreamhome.dto;
+
+import com.dreamhome.entity.PropertyType;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+public class PropertyFacetsResponse {
+    
+    private Page<PropertyDto> properties;
+    private Map<PropertyType, Long> typeCounts;
+    private Map<String, Long> bedroomCounts;
+    private Map<String, Long> priceCounts;
+    private Map<String, Long> cityCounts;
+    
+    // Constructors
+    public PropertyFacetsResponse() {}
+    
+    public PropertyFacetsResponse(Page<PropertyDto> properties, Map<PropertyType, Long> typeCounts,
+                                  Map<String, Long> bedroomCounts, Map<String, Long> priceCounts,
+                                  Map<String, Long> cityCounts) {
+        this.properties = properties;
+        this.typeCounts = typeCounts;
+        this.bedroomCounts = bedroomCounts;
+        this.priceCounts = priceCounts;
+        this.cityCounts = cityCounts;
+    }
+    
+    // Getters and Setters
+    public Page<PropertyDto> getProperties() { return properties; }
+    public void setProperties(Page<PropertyDto> properties) { this.properties = properties; }
+    
+    public Map<PropertyType, Long> getTypeCounts() { return typeCounts; }
+    public void setTypeCounts(Map<PropertyType, Long> typeCounts) { this.typeCounts = typeCounts; }
+    
+    public Map<String, Long> getBedroomCounts() { return bedroomCounts; }
+    public void setBedroomCounts(Map<String, Long> bedroomCounts) { this.bedroomCounts = bedroomCounts; }
+    
+    public Map<String, Long> getPriceCounts() { return priceCounts; }
+    public void setPriceCounts(Map<String, Long> priceCounts) { this.priceCounts = priceCounts; }
+    
+    public Map<String, Long> getCityCounts() { return cityCounts; }
+    public void setCityCounts(Map<String, Long> cityCounts) { this.cityCounts = cityCounts; }
+}
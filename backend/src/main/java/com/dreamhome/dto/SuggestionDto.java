@@ -0,0 +1,27 @@
+package com.dreamhome.dto;
+
+public class SuggestionDto {
+    
+    private String text;
+    private String type;
+    private long count;
+    
+    // Constructors
+    public SuggestionDto() {}
+    
+    public SuggestionDto(String text, String type, long count) {
+        this.text = text;
+        this.type = type;
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
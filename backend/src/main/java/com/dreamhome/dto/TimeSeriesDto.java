@@ -0,0 +1,71 @@
+package com.dreamhome.dto;
+
+import com.dreamhome.entity.AnalyticsGranularity;
+import com.dreamhome.entity.AnalyticsMetric;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One analytics metric over [from, to), one point per hour or day with
+ * empty buckets as zero. Rows created after {@code processedUntil} have not
+ * been rolled up yet.
+ */
+public class TimeSeriesDto {
+    
+    private AnalyticsMetric metric;
+    private AnalyticsGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime processedUntil;
+    private List<Point> points = new ArrayList<>();
+    
+    public static class Point {
+        
+        private LocalDateTime bucketStart;
+        private long count;
+        
+        public Point() {}
+        
+        public Point(LocalDateTime bucketStart, long count) {
+            this.bucketStart = bucketStart;
+            this.count = count;
+        }
+        
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+        
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+    
+    // Constructors
+    public TimeSeriesDto() {}
+    
+    public TimeSeriesDto(AnalyticsMetric metric, AnalyticsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        this.metric = metric;
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+    }
+    
+    // Getters and Setters
+    public AnalyticsMetric getMetric() { return metric; }
+    public void setMetric(AnalyticsMetric metric) { this.metric = metric; }
+    
+    public AnalyticsGranularity getGranularity() { return granularity; }
+    public void setGranularity(AnalyticsGranularity granularity) { this.granularity = granularity; }
+    
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    
+    public LocalDateTime getProcessedUntil() { return processedUntil; }
+    public void setProcessedUntil(LocalDateTime processedUntil) { this.processedUntil = processedUntil; }
+    
+    public List<Point> getPoints() { return points; }
+    public void setPoints(List<Point> points) { this.points = points; }
+}
@@ -0,0 +1,59 @@
+package com.dreamhome.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of rows created for one metric within one hour or day, maintained
+ * by AnalyticsService.
+ */
+@Entity
+@Table(name = "analytics_buckets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_bucket",
+                columnNames = {"metric", "granularity", "bucket_start"}))
+public class AnalyticsBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AnalyticsMetric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AnalyticsGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "event_count", nullable = false)
+    private long count;
+
+    // Constructors
+    public AnalyticsBucket() {}
+
+    public AnalyticsBucket(AnalyticsMetric metric, AnalyticsGranularity granularity, LocalDateTime bucketStart) {
+        this.metric = metric;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public AnalyticsMetric getMetric() { return metric; }
+    public void setMetric(AnalyticsMetric metric) { this.metric = metric; }
+
+    public AnalyticsGranularity getGranularity() { return granularity; }
+    public void setGranularity(AnalyticsGranularity granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,7 @@
+package com.dreamhome.entity;
+
+public enum AnalyticsMetric {
+    LISTINGS,
+    INQUIRIES,
+    SIGNUPS
+}
@@ -0,0 +1,37 @@
+package com.dreamhome.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far the rollup of one metric has got: rows created before
+ * {@code processedUntil} are already counted in the buckets.
+ */
+@Entity
+@Table(name = "analytics_watermarks")
+public class AnalyticsWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AnalyticsMetric metric;
+
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+
+    // Constructors
+    public AnalyticsWatermark() {}
+
+    public AnalyticsWatermark(AnalyticsMetric metric, LocalDateTime processedUntil) {
+        this.metric = metric;
+        this.processedUntil = processedUntil;
+    }
+
+    // Getters and Setters
+    public AnalyticsMetric getMetric() { return metric; }
+    public void setMetric(AnalyticsMetric metric) { this.metric = metric; }
+
+    public LocalDateTime getProcessedUntil() { return processedUntil; }
+    public void setProcessedUntil(LocalDateTime processedUntil) { this.processedUntil = processedUntil; }
+}
@@ -7,7 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inquiries")
+@Table(name = "inquiries", indexes = @Index(name = "idx_inquiries_created_at", columnList = "created_at"))
 public class Inquiry {
     
     @Id
@@ -1,10 +1,14 @@
 package com.dreamhome.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,11 +16,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = @Index(name = "idx_properties_created_at", columnList = "created_at"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Property {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Pooled sequence (a table on MySQL) so inserts can be JDBC-batched; IDENTITY cannot be.
+    // PropertySequenceAligner moves it past ids that were assigned by the old identity column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+    @SequenceGenerator(name = "property_seq", sequenceName = "property_seq", allocationSize = Property.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -73,12 +84,25 @@ public class Property {
     @Column(name = "year_built")
     private Integer yearBuilt;
     
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
+    // Collections of up to 100 listings in the session load with one IN query instead of one each
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "property_images", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "image_url")
     private List<String> imageUrls = new ArrayList<>();
     
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "property_features", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "feature")
     private List<String> features = new ArrayList<>();
@@ -163,6 +187,12 @@ public class Property {
     public Integer getYearBuilt() { return yearBuilt; }
     public void setYearBuilt(Integer yearBuilt) { this.yearBuilt = yearBuilt; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public List<String> getImageUrls() { return imageUrls; }
     public void setImageUrls(List<String> imageUrls) { this.imageUrls = imageUrls; }
     
@@ -0,0 +1,12 @@
+package com.dreamhome.exception;
+
+/**
+ * A refresh token that is unknown, expired, already spent or belongs to a
+ * disabled account. Mapped to 401 Unauthorized; the client has to log in.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.dreamhome.exception;
+
+/**
+ * Password hashing is saturated; the request is refused rather than queued
+ * behind it. Mapped to 429 Too Many Requests.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many sign-in requests, please try again shortly");
+    }
+}
@@ -0,0 +1,13 @@
+package com.dreamhome.exception;
+
+/**
+ * A refresh token exchanged moments ago by another request of the same
+ * client, typically a second browser tab. Mapped to 409 Conflict; the
+ * session is intact and the client should use the tokens that request got.
+ */
+public class RefreshTokenRotatedException extends RuntimeException {
+
+    public RefreshTokenRotatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.entity.AnalyticsBucket;
+import com.dreamhome.entity.AnalyticsGranularity;
+import com.dreamhome.entity.AnalyticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalyticsBucketRepository extends JpaRepository<AnalyticsBucket, Long> {
+
+    List<AnalyticsBucket> findByMetricAndGranularityAndBucketStartIn(
+            AnalyticsMetric metric, AnalyticsGranularity granularity, Collection<LocalDateTime> bucketStarts);
+
+    // Buckets starting in [from, to)
+    List<AnalyticsBucket> findByMetricAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            AnalyticsMetric metric, AnalyticsGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
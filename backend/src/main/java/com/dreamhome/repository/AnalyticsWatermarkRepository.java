@@ -0,0 +1,21 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.entity.AnalyticsMetric;
+import com.dreamhome.entity.AnalyticsWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsWatermarkRepository extends JpaRepository<AnalyticsWatermark, AnalyticsMetric> {
+
+    // Row lock held until commit, so two instances never roll up the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM AnalyticsWatermark w WHERE w.metric = :metric")
+    Optional<AnalyticsWatermark> findForUpdate(@Param("metric") AnalyticsMetric metric);
+}
@@ -1,5 +1,6 @@
 package com.dreamhome.repository;
 
+import com.dreamhome.dto.InquirySummaryDto;
 import com.dreamhome.entity.Inquiry;
 import com.dreamhome.entity.InquiryStatus;
 import com.dreamhome.entity.Property;
@@ -11,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -37,6 +39,23 @@ public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
     @Query("SELECT COUNT(i) FROM Inquiry i WHERE i.status = :status")
     long countByStatus(@Param("status") InquiryStatus status);
     
+    // (status, count) rows
+    @Query("SELECT i.status, COUNT(i) FROM Inquiry i GROUP BY i.status")
+    List<Object[]> countGroupedByStatus();
+
+    // (year, month, day, hour, count) rows for the analytics rollup of [from, to)
+    @Query("SELECT year(i.createdAt), month(i.createdAt), day(i.createdAt), hour(i.createdAt), COUNT(i) " +
+            "FROM Inquiry i WHERE i.createdAt >= :from AND i.createdAt < :to " +
+            "GROUP BY year(i.createdAt), month(i.createdAt), day(i.createdAt), hour(i.createdAt)")
+    List<Object[]> countCreatedPerHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     @Query("SELECT COUNT(i) FROM Inquiry i WHERE i.user = :user")
     long countByUser(@Param("user") User user);
+    
+    // Admin list rows: user and property columns come from the joins, one query per page
+    @Query(value = "SELECT new com.dreamhome.dto.InquirySummaryDto(i.id, i.message, i.status, i.adminResponse, " +
+            "i.createdAt, i.updatedAt, u.id, u.firstName, u.lastName, u.email, p.id, p.title, p.city, p.state) " +
+            "FROM Inquiry i JOIN i.user u JOIN i.property p",
+            countQuery = "SELECT COUNT(i) FROM Inquiry i")
+    Page<InquirySummaryDto> findSummaries(Pageable pageable);
 }
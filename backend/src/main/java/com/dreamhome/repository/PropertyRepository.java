@@ -1,20 +1,28 @@
 package com.dreamhome.repository;
 
+import com.dreamhome.dto.PropertyCardDto;
 import com.dreamhome.entity.Property;
 import com.dreamhome.entity.PropertyStatus;
 import com.dreamhome.entity.PropertyType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
 
     List<Property> findByStatus(PropertyStatus status);
 
@@ -73,7 +81,94 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     @Query("SELECT COUNT(p) FROM Property p WHERE p.status = :status")
     long countByStatus(@Param("status") PropertyStatus status);
 
+    // (status, count) rows
+    @Query("SELECT p.status, COUNT(p) FROM Property p GROUP BY p.status")
+    List<Object[]> countGroupedByStatus();
+
+    // (year, month, day, hour, count) rows for the analytics rollup of [from, to)
+    @Query("SELECT year(p.createdAt), month(p.createdAt), day(p.createdAt), hour(p.createdAt), COUNT(p) " +
+            "FROM Property p WHERE p.createdAt >= :from AND p.createdAt < :to " +
+            "GROUP BY year(p.createdAt), month(p.createdAt), day(p.createdAt), hour(p.createdAt)")
+    List<Object[]> countCreatedPerHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // (status, type, count, sum of prices) for every combination that has listings
+    @Query("SELECT p.status, p.type, COUNT(p), SUM(p.price) FROM Property p GROUP BY p.status, p.type")
+    List<Object[]> summarizeByStatusAndType();
+
+    // (type, median price): the middle row of each type's price order, or the mean of the two middle rows
+    @Query(value = "SELECT r.type, AVG(r.price) FROM (" +
+            "SELECT type, price, ROW_NUMBER() OVER (PARTITION BY type ORDER BY price) AS rn, " +
+            "COUNT(*) OVER (PARTITION BY type) AS cnt FROM properties) r " +
+            "WHERE r.rn IN (FLOOR((r.cnt + 1) / 2), FLOOR((r.cnt + 2) / 2)) GROUP BY r.type",
+            nativeQuery = true)
+    List<Object[]> findMedianPriceByType();
+
     long countByType(PropertyType type);
 
-    List<Property> findTop5ByOrderByCreatedAtDesc();
+    // Listing-card projections: only the columns a card shows, no description or collections
+    String CARD_SELECT = "SELECT new com.dreamhome.dto.PropertyCardDto(p.id, p.title, p.price, p.type, p.status, " +
+            "p.city, p.state, p.bedrooms, p.bathrooms, p.squareFeet, p.isFeatured, p.createdAt) FROM Property p ";
+
+    @Query(value = CARD_SELECT + "WHERE p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Property p WHERE p.status = :status")
+    Page<PropertyCardDto> findCardsByStatus(@Param("status") PropertyStatus status, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.status = :status AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:type IS NULL OR p.type = :type) AND " +
+            "(:minBedrooms IS NULL OR p.bedrooms >= :minBedrooms) AND " +
+            "(:maxBedrooms IS NULL OR p.bedrooms <= :maxBedrooms) AND " +
+            "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Property p WHERE p.status = :status AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:type IS NULL OR p.type = :type) AND " +
+            "(:minBedrooms IS NULL OR p.bedrooms >= :minBedrooms) AND " +
+            "(:maxBedrooms IS NULL OR p.bedrooms <= :maxBedrooms) AND " +
+            "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%')))")
+    Page<PropertyCardDto> findCardsWithFilters(
+            @Param("status") PropertyStatus status,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("type") PropertyType type,
+            @Param("minBedrooms") Integer minBedrooms,
+            @Param("maxBedrooms") Integer maxBedrooms,
+            @Param("city") String city,
+            Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.status = 'AVAILABLE' AND " +
+            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.address) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.city) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Property p WHERE p.status = 'AVAILABLE' AND " +
+            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.address) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.city) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<PropertyCardDto> searchCards(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.isFeatured = true")
+    List<PropertyCardDto> findFeaturedCards();
+
+    @Query(CARD_SELECT + "ORDER BY p.createdAt DESC")
+    List<PropertyCardDto> findRecentCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<PropertyCardDto> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // (property id, image url) rows in collection order, to pick each card's first image
+    @Query("SELECT p.id, i FROM Property p JOIN p.imageUrls i WHERE p.id IN :ids")
+    List<Object[]> findImageUrlsByPropertyIds(@Param("ids") Collection<Long> ids);
+
+    // Forward-only scroll over the whole catalogue for exports; the caller must consume
+    // it inside a transaction and close it. MySQL only honours the fetch size with
+    // useCursorFetch=true, otherwise the driver buffers the entire result set.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Property p ORDER BY p.id")
+    Stream<Property> streamAllForExport();
 }
@@ -0,0 +1,77 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria equivalents of the JPQL filters in {@link PropertyRepository}, for
+ * queries that need a dynamic shape (e.g. keyset scrolling). Unlike the
+ * {@code :param IS NULL OR ...} form, absent filters add no predicate at all.
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {}
+
+    public static Specification<Property> hasStatus(PropertyStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Property> matchesFilters(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (minBedrooms != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bedrooms"), minBedrooms));
+            }
+            if (maxBedrooms != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("bedrooms"), maxBedrooms));
+            }
+            if (city != null) {
+                predicates.add(cb.like(cb.lower(root.get("city")), "%" + city.toLowerCase() + "%"));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Listings tagged with every (or, with {@code matchAll = false}, any) feature, ignoring case and
+     * surrounding whitespace in the stored tags. The features must already be trimmed, lower-cased
+     * and non-blank.
+     */
+    public static Specification<Property> hasFeatures(List<String> features, boolean matchAll) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (String feature : features) {
+                Subquery<Long> tagged = query.subquery(Long.class);
+                Root<Property> owner = tagged.from(Property.class);
+                Join<Property, String> tag = owner.join("features");
+                tagged.select(owner.get("id")).where(
+                        cb.equal(owner.get("id"), root.get("id")),
+                        cb.equal(cb.lower(cb.trim(tag)), feature));
+                predicates.add(cb.exists(tagged));
+            }
+            Predicate[] array = predicates.toArray(new Predicate[0]);
+            return matchAll ? cb.and(array) : cb.or(array);
+        };
+    }
+}
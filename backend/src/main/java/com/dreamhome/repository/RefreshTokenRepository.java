@@ -0,0 +1,46 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Row lock held until commit, so a token can only be exchanged once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    // Whether the family still has a token that can be exchanged, i.e. was not revoked as a whole
+    boolean existsByFamilyIdAndRevokedAtIsNull(String familyId);
+
+    // (accessTokenId, createdAt) of the family's access tokens issued after the given time
+    @Query("SELECT t.accessTokenId, t.createdAt FROM RefreshToken t WHERE t.familyId = :familyId AND t.createdAt > :issuedAfter")
+    List<Object[]> findAccessTokensIssuedAfter(@Param("familyId") String familyId,
+                                               @Param("issuedAfter") LocalDateTime issuedAfter);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.user.id = :userId")
+    List<String> findFamilyIdsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
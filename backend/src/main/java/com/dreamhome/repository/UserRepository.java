@@ -7,11 +7,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByUsername(String username);
 
@@ -33,6 +34,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByIsActiveTrue();
 
+    // (role, isActive, count) rows for reconciling the dashboard counters in one query
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> countGroupedByRoleAndActive();
+
+    // (year, month, day, hour, count) rows for the analytics rollup of [from, to)
+    @Query("SELECT year(u.createdAt), month(u.createdAt), day(u.createdAt), hour(u.createdAt), COUNT(u) " +
+            "FROM User u WHERE u.createdAt >= :from AND u.createdAt < :to " +
+            "GROUP BY year(u.createdAt), month(u.createdAt), day(u.createdAt), hour(u.createdAt)")
+    List<Object[]> countCreatedPerHour(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // (id, username, role, isActive, updatedAt) of users changed since the given time
+    @Query("SELECT u.id, u.username, u.role, u.isActive, u.updatedAt FROM User u WHERE u.updatedAt >= :since")
+    List<Object[]> findAccessChangesSince(@Param("since") LocalDateTime since);
+
     List<User> findTop5ByOrderByCreatedAtDesc();
 
     List<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
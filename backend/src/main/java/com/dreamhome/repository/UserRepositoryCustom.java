@@ -0,0 +1,15 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Looks the user up by username through Hibernate's natural-id API, so
+     * repeated lookups are answered from the second-level cache instead of
+     * running a query.
+     */
+    Optional<User> findByNaturalId(String username);
+}
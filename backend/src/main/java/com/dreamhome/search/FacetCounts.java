@@ -0,0 +1,34 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.PropertyType;
+
+import java.util.Map;
+
+/** Per-facet listing counts produced by {@link PropertyAttributeStore#facets}. */
+public class FacetCounts {
+
+    private final long matching;
+    private final Map<PropertyType, Long> types;
+    private final Map<String, Long> bedrooms;
+    private final Map<String, Long> prices;
+    private final Map<String, Long> cities;
+
+    public FacetCounts(long matching, Map<PropertyType, Long> types, Map<String, Long> bedrooms,
+                       Map<String, Long> prices, Map<String, Long> cities) {
+        this.matching = matching;
+        this.types = types;
+        this.bedrooms = bedrooms;
+        this.prices = prices;
+        this.cities = cities;
+    }
+
+    public long getMatching() { return matching; }
+
+    public Map<PropertyType, Long> getTypes() { return types; }
+
+    public Map<String, Long> getBedrooms() { return bedrooms; }
+
+    public Map<String, Long> getPrices() { return prices; }
+
+    public Map<String, Long> getCities() { return cities; }
+}
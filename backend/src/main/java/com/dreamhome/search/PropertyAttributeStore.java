@@ -0,0 +1,542 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyType;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.LongPredicate;
+
+/**
+ * Read-optimized, columnar snapshot of the filterable attributes of every
+ * AVAILABLE listing: price as long cents, bedrooms/bathrooms as bytes, type
+ * as an ordinal and city as a dictionary code, one primitive array per
+ * column in id order.
+ *
+ * <p>Filters are answered by building one {@link BitSet} per active criterion
+ * and intersecting them; only the requested page of ids is ranked. Readers
+ * work on an immutable {@link Snapshot} without locking, so throughput
+ * scales with cores. Writers serialize on the store and publish a fresh
+ * copy-on-write snapshot.
+ */
+@Component
+public class PropertyAttributeStore implements PropertyIndex {
+
+    static final String[] BEDROOM_BUCKETS = {"0", "1", "2", "3", "4", "5+"};
+
+    static final long[] PRICE_BUCKET_BOUNDS_CENTS = {10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L};
+    static final String[] PRICE_BUCKETS = {"0-100000", "100000-250000", "250000-500000", "500000-1000000", "1000000+"};
+
+    private static final int MAX_CITY_FACETS = 20;
+
+    // Ranking packs (sortKey << ROW_BITS | row) into one long
+    private static final int ROW_BITS = 22;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+    private static final long KEY_MAX = (1L << (63 - ROW_BITS)) - 1;
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "createdAt", "price", "bedrooms", "bathrooms");
+
+    @Autowired
+    private PropertyFeatureIndex propertyFeatureIndex;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Override
+    public synchronized void rebuild(Collection<Property> properties) {
+        List<Property> sorted = new ArrayList<>(properties);
+        sorted.sort(Comparator.comparing(Property::getId));
+        snapshot = Snapshot.of(sorted);
+    }
+
+    @Override
+    public synchronized void upsert(Property property) {
+        snapshot = snapshot.withUpsert(property);
+    }
+
+    // One merge pass and one published snapshot for the whole batch
+    @Override
+    public synchronized void upsertAll(Collection<Property> properties) {
+        snapshot = snapshot.withUpsertAll(properties);
+    }
+
+    @Override
+    public synchronized void remove(Long propertyId) {
+        snapshot = snapshot.without(propertyId);
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /** Whether {@link #filter} can order by this field; other fields must go to the database. */
+    public boolean supportsSort(String sortBy) {
+        return SORTABLE_FIELDS.contains(sortBy) && snapshot.size <= ROW_MASK;
+    }
+
+    /**
+     * Returns the ids of listings {@code offset .. offset + limit} matching the
+     * filter in the requested order (ties broken by id), plus the total count.
+     */
+    public SearchHits filter(PropertyFilter filter, int offset, int limit, String sortBy, boolean descending) {
+        Snapshot current = snapshot;
+        Criteria criteria = criteria(filter, current);
+        BitSet matches = current.intersect(criteria.price(current), criteria.type(current),
+                criteria.bedrooms(current), criteria.city(current), criteria.features(current));
+
+        int total = matches.cardinality();
+        if (limit <= 0 || offset >= total) {
+            return new SearchHits(Collections.emptyList(), total);
+        }
+
+        int wanted = Math.min(offset + limit, total);
+        int[] rows = sortBy.equals("id")
+                ? current.firstRows(matches, wanted, descending)
+                : current.topRows(matches, total, wanted, sortBy, descending);
+
+        List<Long> ids = new ArrayList<>(rows.length - offset);
+        for (int i = offset; i < rows.length; i++) {
+            ids.add(current.ids[rows[i]]);
+        }
+        return new SearchHits(ids, total);
+    }
+
+    /**
+     * Tests listing ids against the filter, evaluated once against the current
+     * snapshot. Lets other indexes (e.g. geospatial) apply the standard filters.
+     */
+    public LongPredicate matcher(PropertyFilter filter) {
+        Snapshot current = snapshot;
+        Criteria criteria = criteria(filter, current);
+        BitSet matches = current.intersect(criteria.price(current), criteria.type(current),
+                criteria.bedrooms(current), criteria.city(current), criteria.features(current));
+        return id -> {
+            int row = Arrays.binarySearch(current.ids, id);
+            return row >= 0 && matches.get(row);
+        };
+    }
+
+    /**
+     * Counts listings per type, bedroom bucket, price bucket and city. Each
+     * facet ignores its own criterion (so the sidebar can offer alternatives)
+     * but honours all the others, which is an intersection of the other
+     * criteria's bitsets.
+     */
+    public FacetCounts facets(PropertyFilter filter) {
+        Snapshot current = snapshot;
+        Criteria criteria = criteria(filter, current);
+        BitSet price = criteria.price(current);
+        BitSet type = criteria.type(current);
+        BitSet bedrooms = criteria.bedrooms(current);
+        BitSet city = criteria.city(current);
+        BitSet features = criteria.features(current);
+
+        long[] typeCounts = new long[PropertyType.values().length];
+        BitSet rows = current.intersect(price, bedrooms, city, features);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            typeCounts[current.types[row]]++;
+        }
+
+        long[] priceCounts = new long[PRICE_BUCKETS.length];
+        rows = current.intersect(type, bedrooms, city, features);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            priceCounts[priceBucket(current.priceCents[row])]++;
+        }
+
+        long[] bedroomCounts = new long[BEDROOM_BUCKETS.length];
+        rows = current.intersect(price, type, city, features);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            bedroomCounts[Math.min(current.bedrooms[row], BEDROOM_BUCKETS.length - 1)]++;
+        }
+
+        long[] cityCounts = new long[current.cityNames.length];
+        rows = current.intersect(price, type, bedrooms, features);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            cityCounts[current.cityCodes[row]]++;
+        }
+
+        Map<PropertyType, Long> types = new EnumMap<>(PropertyType.class);
+        for (PropertyType value : PropertyType.values()) {
+            types.put(value, typeCounts[value.ordinal()]);
+        }
+
+        Integer[] codes = new Integer[cityCounts.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i;
+        }
+        Arrays.sort(codes, (a, b) -> Long.compare(cityCounts[b], cityCounts[a]));
+        Map<String, Long> cities = new LinkedHashMap<>();
+        for (int i = 0; i < codes.length && i < MAX_CITY_FACETS && cityCounts[codes[i]] > 0; i++) {
+            cities.put(current.cityNames[codes[i]], cityCounts[codes[i]]);
+        }
+
+        long matching = current.intersect(price, type, bedrooms, city, features).cardinality();
+        return new FacetCounts(matching, types, toBuckets(BEDROOM_BUCKETS, bedroomCounts),
+                toBuckets(PRICE_BUCKETS, priceCounts), cities);
+    }
+
+    private Criteria criteria(PropertyFilter filter, Snapshot current) {
+        RoaringBitmap features = filter.getFeatures().isEmpty() ? null
+                : propertyFeatureIndex.matching(filter.getFeatures(), filter.isMatchAllFeatures());
+        return new Criteria(filter, current, features);
+    }
+
+    private static Map<String, Long> toBuckets(String[] labels, long[] counts) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            buckets.put(labels[i], counts[i]);
+        }
+        return buckets;
+    }
+
+    static int priceBucket(long priceCents) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_BOUNDS_CENTS.length && priceCents >= PRICE_BUCKET_BOUNDS_CENTS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    static long toCents(BigDecimal price, RoundingMode rounding) {
+        return price.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    private static byte toByte(Integer value) {
+        return (byte) Math.max(0, Math.min(value == null ? 0 : value, Byte.MAX_VALUE));
+    }
+
+    private static long toEpochSecond(LocalDateTime value) {
+        return value == null ? 0 : value.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** One immutable version of the columns. Never modified after publication. */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = of(Collections.emptyList());
+
+        final int size;
+        final long[] ids;
+        final long[] priceCents;
+        final byte[] bedrooms;
+        final byte[] bathrooms;
+        final byte[] types;
+        final int[] cityCodes;
+        final long[] createdAt;
+
+        // City dictionary, append-only between rebuilds
+        final String[] cityNames;
+        final Map<String, Integer> cityCodeByKey;
+
+        private Snapshot(int size, String[] cityNames, Map<String, Integer> cityCodeByKey) {
+            this.size = size;
+            this.ids = new long[size];
+            this.priceCents = new long[size];
+            this.bedrooms = new byte[size];
+            this.bathrooms = new byte[size];
+            this.types = new byte[size];
+            this.cityCodes = new int[size];
+            this.createdAt = new long[size];
+            this.cityNames = cityNames;
+            this.cityCodeByKey = cityCodeByKey;
+        }
+
+        /** Builds a snapshot from properties already sorted by id. */
+        static Snapshot of(List<Property> sorted) {
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            for (Property property : sorted) {
+                codes.computeIfAbsent(property.getCity().toLowerCase(), key -> {
+                    names.add(property.getCity());
+                    return names.size() - 1;
+                });
+            }
+            Snapshot built = new Snapshot(sorted.size(), names.toArray(new String[0]), codes);
+            for (int row = 0; row < sorted.size(); row++) {
+                built.set(row, sorted.get(row));
+            }
+            return built;
+        }
+
+        Snapshot withUpsert(Property property) {
+            int index = Arrays.binarySearch(ids, property.getId());
+            String cityKey = property.getCity().toLowerCase();
+            String[] names = cityNames;
+            Map<String, Integer> codes = cityCodeByKey;
+            if (!codes.containsKey(cityKey)) {
+                names = Arrays.copyOf(cityNames, cityNames.length + 1);
+                names[names.length - 1] = property.getCity();
+                codes = new HashMap<>(cityCodeByKey);
+                codes.put(cityKey, names.length - 1);
+            }
+
+            Snapshot next;
+            int row;
+            if (index >= 0) {
+                next = new Snapshot(size, names, codes);
+                copyRows(this, 0, next, 0, size);
+                row = index;
+            } else {
+                row = -(index + 1);
+                next = new Snapshot(size + 1, names, codes);
+                copyRows(this, 0, next, 0, row);
+                copyRows(this, row, next, row + 1, size - row);
+            }
+            next.set(row, property);
+            return next;
+        }
+
+        Snapshot withUpsertAll(Collection<Property> properties) {
+            TreeMap<Long, Property> changes = new TreeMap<>();
+            for (Property property : properties) {
+                changes.put(property.getId(), property);
+            }
+            if (changes.isEmpty()) {
+                return this;
+            }
+
+            List<String> names = null;
+            Map<String, Integer> codes = cityCodeByKey;
+            int added = 0;
+            for (Property property : changes.values()) {
+                String cityKey = property.getCity().toLowerCase();
+                if (!codes.containsKey(cityKey)) {
+                    if (names == null) {
+                        names = new ArrayList<>(Arrays.asList(cityNames));
+                        codes = new HashMap<>(cityCodeByKey);
+                    }
+                    names.add(property.getCity());
+                    codes.put(cityKey, names.size() - 1);
+                }
+                if (Arrays.binarySearch(ids, property.getId()) < 0) {
+                    added++;
+                }
+            }
+
+            // Merge the id-ordered changes into the id-ordered rows, copying the unchanged runs between them
+            Snapshot next = new Snapshot(size + added,
+                    names != null ? names.toArray(new String[0]) : cityNames, codes);
+            int from = 0;
+            int to = 0;
+            for (Property property : changes.values()) {
+                int index = Arrays.binarySearch(ids, from, size, property.getId());
+                int end = index >= 0 ? index : -(index + 1);
+                copyRows(this, from, next, to, end - from);
+                to += end - from;
+                next.set(to++, property);
+                from = index >= 0 ? index + 1 : end;
+            }
+            copyRows(this, from, next, to, size - from);
+            return next;
+        }
+
+        Snapshot without(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return this;
+            }
+            Snapshot next = new Snapshot(size - 1, cityNames, cityCodeByKey);
+            copyRows(this, 0, next, 0, index);
+            copyRows(this, index + 1, next, index, size - index - 1);
+            return next;
+        }
+
+        private void set(int row, Property property) {
+            ids[row] = property.getId();
+            priceCents[row] = toCents(property.getPrice(), RoundingMode.HALF_UP);
+            bedrooms[row] = toByte(property.getBedrooms());
+            bathrooms[row] = toByte(property.getBathrooms());
+            types[row] = (byte) property.getType().ordinal();
+            cityCodes[row] = cityCodeByKey.get(property.getCity().toLowerCase());
+            createdAt[row] = toEpochSecond(property.getCreatedAt());
+        }
+
+        private static void copyRows(Snapshot from, int fromRow, Snapshot to, int toRow, int count) {
+            System.arraycopy(from.ids, fromRow, to.ids, toRow, count);
+            System.arraycopy(from.priceCents, fromRow, to.priceCents, toRow, count);
+            System.arraycopy(from.bedrooms, fromRow, to.bedrooms, toRow, count);
+            System.arraycopy(from.bathrooms, fromRow, to.bathrooms, toRow, count);
+            System.arraycopy(from.types, fromRow, to.types, toRow, count);
+            System.arraycopy(from.cityCodes, fromRow, to.cityCodes, toRow, count);
+            System.arraycopy(from.createdAt, fromRow, to.createdAt, toRow, count);
+        }
+
+        /** Intersection of the given criteria; a null set means "every row". */
+        BitSet intersect(BitSet... sets) {
+            BitSet result = null;
+            for (BitSet set : sets) {
+                if (set == null) {
+                    continue;
+                }
+                if (result == null) {
+                    result = (BitSet) set.clone();
+                } else {
+                    result.and(set);
+                }
+            }
+            if (result == null) {
+                result = new BitSet(size);
+                result.set(0, size);
+            }
+            return result;
+        }
+
+        /** Rows are id-ordered, so ordering by id is a walk over the bitset. */
+        int[] firstRows(BitSet matches, int wanted, boolean descending) {
+            int[] rows = new int[wanted];
+            int n = 0;
+            if (descending) {
+                for (int row = matches.previousSetBit(size - 1); row >= 0 && n < wanted; row = matches.previousSetBit(row - 1)) {
+                    rows[n++] = row;
+                }
+            } else {
+                for (int row = matches.nextSetBit(0); row >= 0 && n < wanted; row = matches.nextSetBit(row + 1)) {
+                    rows[n++] = row;
+                }
+            }
+            return rows;
+        }
+
+        int[] topRows(BitSet matches, int total, int wanted, String sortBy, boolean descending) {
+            long[] keys = new long[total];
+            int n = 0;
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                long key = Math.max(0, Math.min(sortKey(sortBy, row), KEY_MAX));
+                // Ascending order is "largest of the inverted key", keeping the lower id first on ties
+                keys[n++] = descending
+                        ? (key << ROW_BITS) | row
+                        : ((KEY_MAX - key) << ROW_BITS) | (ROW_MASK - row);
+            }
+
+            long[] ranked = TopK.largest(keys, n, wanted);
+            int[] rows = new int[ranked.length];
+            for (int i = 0; i < ranked.length; i++) {
+                long row = ranked[i] & ROW_MASK;
+                rows[i] = (int) (descending ? row : ROW_MASK - row);
+            }
+            return rows;
+        }
+
+        private long sortKey(String sortBy, int row) {
+            switch (sortBy) {
+                case "createdAt":
+                    return createdAt[row];
+                case "price":
+                    return priceCents[row];
+                case "bedrooms":
+                    return bedrooms[row];
+                case "bathrooms":
+                    return bathrooms[row];
+                default:
+                    return ids[row];
+            }
+        }
+    }
+
+    /** A {@link PropertyFilter} converted to the store's primitive units, one bitset per criterion. */
+    private static final class Criteria {
+
+        final long minPriceCents;
+        final long maxPriceCents;
+        final PropertyType type;
+        final int minBedrooms;
+        final int maxBedrooms;
+        final String city;
+        final RoaringBitmap features;
+
+        Criteria(PropertyFilter filter, Snapshot snapshot, RoaringBitmap features) {
+            this.minPriceCents = filter.getMinPrice() == null ? Long.MIN_VALUE : toCents(filter.getMinPrice(), RoundingMode.CEILING);
+            this.maxPriceCents = filter.getMaxPrice() == null ? Long.MAX_VALUE : toCents(filter.getMaxPrice(), RoundingMode.FLOOR);
+            this.type = filter.getType();
+            this.minBedrooms = filter.getMinBedrooms() == null ? Integer.MIN_VALUE : filter.getMinBedrooms();
+            this.maxBedrooms = filter.getMaxBedrooms() == null ? Integer.MAX_VALUE : filter.getMaxBedrooms();
+            this.city = filter.getCity() == null ? null : filter.getCity().toLowerCase();
+            this.features = features;
+        }
+
+        BitSet price(Snapshot s) {
+            if (minPriceCents == Long.MIN_VALUE && maxPriceCents == Long.MAX_VALUE) {
+                return null;
+            }
+            BitSet set = new BitSet(s.size);
+            for (int row = 0; row < s.size; row++) {
+                long price = s.priceCents[row];
+                if (price >= minPriceCents && price <= maxPriceCents) {
+                    set.set(row);
+                }
+            }
+            return set;
+        }
+
+        BitSet type(Snapshot s) {
+            if (type == null) {
+                return null;
+            }
+            byte ordinal = (byte) type.ordinal();
+            BitSet set = new BitSet(s.size);
+            for (int row = 0; row < s.size; row++) {
+                if (s.types[row] == ordinal) {
+                    set.set(row);
+                }
+            }
+            return set;
+        }
+
+        BitSet bedrooms(Snapshot s) {
+            if (minBedrooms == Integer.MIN_VALUE && maxBedrooms == Integer.MAX_VALUE) {
+                return null;
+            }
+            BitSet set = new BitSet(s.size);
+            for (int row = 0; row < s.size; row++) {
+                int beds = s.bedrooms[row];
+                if (beds >= minBedrooms && beds <= maxBedrooms) {
+                    set.set(row);
+                }
+            }
+            return set;
+        }
+
+        BitSet city(Snapshot s) {
+            if (city == null) {
+                return null;
+            }
+            // Evaluate the substring match once per dictionary entry, not once per row
+            boolean[] matchingCodes = new boolean[s.cityNames.length];
+            for (Map.Entry<String, Integer> entry : s.cityCodeByKey.entrySet()) {
+                matchingCodes[entry.getValue()] = entry.getKey().contains(city);
+            }
+            BitSet set = new BitSet(s.size);
+            for (int row = 0; row < s.size; row++) {
+                if (matchingCodes[s.cityCodes[row]]) {
+                    set.set(row);
+                }
+            }
+            return set;
+        }
+
+        BitSet features(Snapshot s) {
+            if (features == null) {
+                return null;
+            }
+            // Both the bitmap and the id column ascend, so rows are found in one merge pass
+            BitSet set = new BitSet(s.size);
+            IntIterator it = features.getIntIterator();
+            int row = 0;
+            while (it.hasNext() && row < s.size) {
+                long id = it.next();
+                while (row < s.size && s.ids[row] < id) {
+                    row++;
+                }
+                if (row < s.size && s.ids[row] == id) {
+                    set.set(row);
+                }
+            }
+            return set;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.dreamhome.search;
+
+import com.dreamhome.dto.PropertyClusterDto;
+import com.dreamhome.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pre-aggregated map clusters: for every geohash precision from 1 to
+ * {@value #MAX_PRECISION} it keeps count, coordinate sums and min/max price
+ * per cell, updated incrementally as listings change. A viewport query reads
+ * only the cells covering the box, so its cost depends on the viewport and
+ * not on the catalogue size.
+ */
+@Component
+public class PropertyClusterIndex implements PropertyIndex {
+
+    /** ~150 m cells; closer zoom levels should show individual listings via /within. */
+    static final int MAX_PRECISION = 7;
+
+    // Upper bound on cells a single response may contain
+    private static final int MAX_CELLS = 1024;
+
+    // Coarser covering used to locate candidate cells via prefix ranges
+    private static final int MAX_COVERING_CELLS = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // clusters.get(p - 1): geohash of precision p -> aggregate
+    private final List<NavigableMap<String, Cluster>> clusters = new ArrayList<>();
+
+    // Finest-level members, used to recompute min/max when an extreme leaves a cell
+    private final NavigableMap<String, List<Member>> finestMembers = new TreeMap<>();
+    private final Map<Long, Member> members = new HashMap<>();
+
+    public PropertyClusterIndex() {
+        for (int p = 1; p <= MAX_PRECISION; p++) {
+            clusters.add(new TreeMap<>());
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            clusters.forEach(Map::clear);
+            finestMembers.clear();
+            members.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(property.getId());
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Maps a web-map zoom level (0-20) to the geohash precision whose cells suit it. */
+    public static int precisionForZoom(int zoom) {
+        return Math.max(1, Math.min(MAX_PRECISION, (zoom + 2) / 2));
+    }
+
+    /**
+     * Clusters intersecting the box at the precision for {@code zoom}, coarsened
+     * if the box would otherwise span more than {@value #MAX_CELLS} cells.
+     * {@code minLng > maxLng} denotes a box crossing the antimeridian.
+     */
+    public List<PropertyClusterDto> clusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        // Both halves of an antimeridian box share one precision and one cell budget
+        double width = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        int precision = precisionForZoom(zoom);
+        while (precision > 1 && cellCount(maxLat - minLat, width, precision) > MAX_CELLS) {
+            precision--;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (minLng > maxLng) {
+                List<PropertyClusterDto> result = clustersAt(minLat, minLng, maxLat, 180, precision);
+                result.addAll(clustersAt(minLat, -180, maxLat, maxLng, precision));
+                return result;
+            }
+            return clustersAt(minLat, minLng, maxLat, maxLng, precision);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<PropertyClusterDto> clustersAt(double minLat, double minLng, double maxLat, double maxLng,
+                                                int precision) {
+        int coveringPrecision = precision;
+        while (coveringPrecision > 1
+                && cellCount(maxLat - minLat, maxLng - minLng, coveringPrecision) > MAX_COVERING_CELLS) {
+            coveringPrecision--;
+        }
+
+        NavigableMap<String, Cluster> level = clusters.get(precision - 1);
+        List<PropertyClusterDto> result = new ArrayList<>();
+        for (String prefix : covering(minLat, minLng, maxLat, maxLng, coveringPrecision)) {
+            for (Map.Entry<String, Cluster> entry : prefixRange(level, prefix).entrySet()) {
+                double[] cell = Geohash.bounds(entry.getKey());
+                if (cell[0] <= maxLat && cell[2] >= minLat && cell[1] <= maxLng && cell[3] >= minLng) {
+                    result.add(entry.getValue().view(entry.getKey()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double cellCount(double height, double width, int precision) {
+        double rows = Math.floor(height / Geohash.cellHeight(precision)) + 2;
+        double columns = Math.floor(width / Geohash.cellWidth(precision)) + 2;
+        return rows * columns;
+    }
+
+    /** Geohashes of the given precision whose cells together cover the box. */
+    private static Set<String> covering(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        double height = Geohash.cellHeight(precision);
+        double width = Geohash.cellWidth(precision);
+        Set<String> hashes = new TreeSet<>();
+        for (double lat = minLat; ; lat = Math.min(lat + height, maxLat)) {
+            for (double lng = minLng; ; lng = Math.min(lng + width, maxLng)) {
+                hashes.add(Geohash.encode(lat, lng, precision));
+                if (lng >= maxLng) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return hashes;
+    }
+
+    private static <V> SortedMap<String, V> prefixRange(NavigableMap<String, V> map, String prefix) {
+        return map.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private void add(Property property) {
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return;
+        }
+        double lng = PropertyGeoIndex.normalizeLng(property.getLongitude());
+        String hash = Geohash.encode(property.getLatitude(), lng, MAX_PRECISION);
+        long priceCents = property.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        Member member = new Member(property.getId(), hash, property.getLatitude(), lng, priceCents);
+
+        members.put(member.id, member);
+        finestMembers.computeIfAbsent(hash, key -> new ArrayList<>()).add(member);
+        for (int p = 1; p <= MAX_PRECISION; p++) {
+            clusters.get(p - 1).computeIfAbsent(hash.substring(0, p), key -> new Cluster()).add(member);
+        }
+    }
+
+    private void unindex(Long propertyId) {
+        Member member = members.remove(propertyId);
+        if (member == null) {
+            return;
+        }
+
+        List<Member> cell = finestMembers.get(member.hash);
+        cell.remove(member);
+        if (cell.isEmpty()) {
+            finestMembers.remove(member.hash);
+        }
+
+        for (int p = 1; p <= MAX_PRECISION; p++) {
+            String prefix = member.hash.substring(0, p);
+            NavigableMap<String, Cluster> level = clusters.get(p - 1);
+            Cluster cluster = level.get(prefix);
+            cluster.subtract(member);
+            if (cluster.count == 0) {
+                level.remove(prefix);
+            } else if (member.priceCents == cluster.minPriceCents || member.priceCents == cluster.maxPriceCents) {
+                // Min/max are not subtractable; rescan the members still under this prefix
+                cluster.recomputeExtremes(prefixRange(finestMembers, prefix).values());
+            }
+        }
+    }
+
+    private static final class Member {
+
+        final long id;
+        final String hash;
+        final double lat;
+        final double lng;
+        final long priceCents;
+
+        Member(long id, String hash, double lat, double lng, long priceCents) {
+            this.id = id;
+            this.hash = hash;
+            this.lat = lat;
+            this.lng = lng;
+            this.priceCents = priceCents;
+        }
+    }
+
+    private static final class Cluster {
+
+        int count;
+        double sumLat;
+        double sumLng;
+        long minPriceCents = Long.MAX_VALUE;
+        long maxPriceCents = Long.MIN_VALUE;
+
+        void add(Member member) {
+            count++;
+            sumLat += member.lat;
+            sumLng += member.lng;
+            minPriceCents = Math.min(minPriceCents, member.priceCents);
+            maxPriceCents = Math.max(maxPriceCents, member.priceCents);
+        }
+
+        void subtract(Member member) {
+            count--;
+            sumLat -= member.lat;
+            sumLng -= member.lng;
+        }
+
+        void recomputeExtremes(Collection<List<Member>> cells) {
+            minPriceCents = Long.MAX_VALUE;
+            maxPriceCents = Long.MIN_VALUE;
+            for (List<Member> cell : cells) {
+                for (Member member : cell) {
+                    minPriceCents = Math.min(minPriceCents, member.priceCents);
+                    maxPriceCents = Math.max(maxPriceCents, member.priceCents);
+                }
+            }
+        }
+
+        PropertyClusterDto view(String geohash) {
+            return new PropertyClusterDto(geohash, count, sumLat / count, sumLng / count,
+                    BigDecimal.valueOf(minPriceCents, 2), BigDecimal.valueOf(maxPriceCents, 2));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed bitmap of listing ids per feature tag ("Pool", "Garage",
+ * ...) of AVAILABLE listings. "Has Pool AND Garage" is a bitmap
+ * intersection instead of a join against property_features with
+ * GROUP BY/HAVING. Tags are matched case-insensitively.
+ */
+@Component
+public class PropertyFeatureIndex implements PropertyIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+
+    // property id -> normalized tags it was indexed under
+    private final Map<Integer, String[]> documentFeatures = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            documentFeatures.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+            bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(PropertySearchIndex.docId(property.getId()));
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(PropertySearchIndex.docId(propertyId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of listings carrying all ({@code matchAll}) or any of the features,
+     * as a new bitmap the caller may keep.
+     */
+    public RoaringBitmap matching(Collection<String> features, boolean matchAll) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String feature : features) {
+            String key = normalize(feature);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        if (keys.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> sets = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                RoaringBitmap set = bitmaps.get(key);
+                if (set == null && matchAll) {
+                    return new RoaringBitmap();
+                }
+                if (set != null) {
+                    sets.add(set);
+                }
+            }
+            if (sets.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            if (!matchAll) {
+                return RoaringBitmap.or(sets.iterator());
+            }
+            // Smallest first keeps every intermediate result as small as possible
+            sets.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            RoaringBitmap result = sets.get(0).clone();
+            for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+                result.and(sets.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String feature) {
+        return feature == null ? "" : feature.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void add(Property property) {
+        Set<String> keys = new HashSet<>();
+        if (property.getFeatures() != null) {
+            for (String feature : property.getFeatures()) {
+                String key = normalize(feature);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+
+        int doc = PropertySearchIndex.docId(property.getId());
+        for (String key : keys) {
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(doc);
+        }
+        documentFeatures.put(doc, keys.toArray(new String[0]));
+    }
+
+    private void unindex(int doc) {
+        String[] keys = documentFeatures.remove(doc);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            RoaringBitmap set = bitmaps.get(key);
+            if (set != null) {
+                set.remove(doc);
+                if (set.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+    }
+}
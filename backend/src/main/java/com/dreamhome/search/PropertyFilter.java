@@ -0,0 +1,59 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.PropertyType;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The optional criteria accepted by /properties/filter. A null field means
+ * "no constraint", matching the {@code :param IS NULL OR ...} JPQL semantics.
+ */
+public class PropertyFilter {
+
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final PropertyType type;
+    private final Integer minBedrooms;
+    private final Integer maxBedrooms;
+    private final String city;
+    private final List<String> features;
+    private final boolean matchAllFeatures;
+
+    public PropertyFilter(BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+                          Integer minBedrooms, Integer maxBedrooms, String city) {
+        this(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, null, true);
+    }
+
+    public PropertyFilter(BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+                          Integer minBedrooms, Integer maxBedrooms, String city,
+                          List<String> features, boolean matchAllFeatures) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.type = type;
+        this.minBedrooms = minBedrooms;
+        this.maxBedrooms = maxBedrooms;
+        this.city = city;
+        this.features = features == null ? Collections.emptyList() : features;
+        this.matchAllFeatures = matchAllFeatures;
+    }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+
+    public PropertyType getType() { return type; }
+
+    public Integer getMinBedrooms() { return minBedrooms; }
+
+    public Integer getMaxBedrooms() { return maxBedrooms; }
+
+    public String getCity() { return city; }
+
+    /** Feature tags the listing must carry; empty means no constraint. */
+    public List<String> getFeatures() { return features; }
+
+    /** True to require every feature, false to require at least one. */
+    public boolean isMatchAllFeatures() { return matchAllFeatures; }
+}
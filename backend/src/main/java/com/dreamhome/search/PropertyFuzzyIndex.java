@@ -0,0 +1,343 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over the vocabulary (not the listings) of title, city and
+ * address, used to correct misspelt query terms before they reach
+ * {@link PropertySearchIndex}. "sprngfield" expands to "springfield",
+ * "apartmnt" to "apartment".
+ *
+ * <p>Candidates must share enough trigrams to possibly be within the edit
+ * bound (the q-gram lemma), are ranked by trigram Jaccard similarity and
+ * verified with a bounded Levenshtein distance. Only alphabetic terms take
+ * part: street numbers and zip codes are either right or a different place.
+ * Memory is proportional to the number of distinct terms and capped at
+ * {@value #MAX_TERMS}.
+ */
+@Component
+public class PropertyFuzzyIndex implements PropertyIndex {
+
+    static final int MAX_TERMS = 500_000;
+
+    // Shorter query terms have too many one-edit neighbours to correct usefully
+    private static final int MIN_TERM_LENGTH = 4;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    // A four-letter query term may be one deletion away from a three-letter one
+    private static final int MIN_INDEXED_LENGTH = MIN_TERM_LENGTH - 1;
+
+    private static final int MAX_EXPANSIONS = 8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term id -> term; freed ids are recycled through freeIds
+    private final List<String> terms = new ArrayList<>();
+    private int[] termCounts = new int[64];
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+
+    // packed trigram -> sorted term ids containing it
+    private final Map<Long, IntSet> trigrams = new HashMap<>();
+
+    // property id -> vocabulary terms it contributed
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            termCounts = new int[64];
+            termIds.clear();
+            freeIds.clear();
+            trigrams.clear();
+            documentTerms.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(property.getId());
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One clause per distinct query token: the token itself followed by up to
+     * {@value #MAX_EXPANSIONS} known terms within its edit bound, closest first.
+     */
+    public List<List<String>> expand(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String token : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+                List<String> alternatives = new ArrayList<>();
+                alternatives.add(token);
+                alternatives.addAll(corrections(token));
+                clauses.add(alternatives);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clauses;
+    }
+
+    private List<String> corrections(String token) {
+        int length = token.length();
+        if (length < MIN_TERM_LENGTH || !isCorrectable(token)) {
+            return Collections.emptyList();
+        }
+        int maxEdits = length < 8 ? 1 : 2;
+
+        long[] grams = trigrams(token);
+        // Every edit destroys at most three trigrams
+        int minShared = grams.length - 3 * maxEdits;
+
+        List<IntSet> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            IntSet ids = trigrams.get(gram);
+            lists.add(ids == null ? IntSet.EMPTY : ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.size));
+
+        // A term sharing minShared trigrams must occur in one of the rarest
+        // (grams - minShared + 1) lists, so only those are scanned for candidates
+        int scanned = Math.min(lists.size(), lists.size() - Math.max(1, minShared) + 1);
+        int total = 0;
+        for (int k = 0; k < scanned; k++) {
+            total += lists.get(k).size;
+        }
+        int[] candidates = new int[total];
+        int n = 0;
+        for (int k = 0; k < scanned; k++) {
+            IntSet ids = lists.get(k);
+            System.arraycopy(ids.values, 0, candidates, n, ids.size);
+            n += ids.size;
+        }
+        Arrays.sort(candidates);
+
+        List<Correction> matches = new ArrayList<>();
+        for (int i = 0; i < n; ) {
+            int id = candidates[i];
+            int j = i;
+            while (j < n && candidates[j] == id) {
+                j++;
+            }
+            int shared = j - i;
+            i = j;
+
+            String term = terms.get(id);
+            if (term.equals(token) || Math.abs(term.length() - length) > maxEdits) {
+                continue;
+            }
+            for (int k = scanned; k < lists.size(); k++) {
+                if (lists.get(k).contains(id)) {
+                    shared++;
+                }
+            }
+            if (shared < minShared) {
+                continue;
+            }
+            int distance = boundedLevenshtein(token, term, maxEdits);
+            if (distance <= maxEdits) {
+                double jaccard = (double) shared / (grams.length + trigrams(term).length - shared);
+                matches.add(new Correction(term, distance, jaccard));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt((Correction c) -> c.distance)
+                .thenComparing(c -> -c.jaccard)
+                .thenComparing(c -> c.term));
+        List<String> result = new ArrayList<>(Math.min(MAX_EXPANSIONS, matches.size()));
+        for (int i = 0; i < matches.size() && i < MAX_EXPANSIONS; i++) {
+            result.add(matches.get(i).term);
+        }
+        return result;
+    }
+
+    /** Levenshtein distance, or {@code maxEdits + 1} as soon as it must exceed the bound. */
+    static int boundedLevenshtein(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    /** Distinct trigrams of the term padded as "$$term$": at most n + 1 for a term of length n. */
+    static long[] trigrams(String term) {
+        String padded = "\0\0" + term + "\0";
+        Set<Long> unique = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            unique.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+        long[] grams = new long[unique.size()];
+        int i = 0;
+        for (long gram : unique) {
+            grams[i++] = gram;
+        }
+        return grams;
+    }
+
+    private void add(Property property) {
+        Set<String> vocabulary = new HashSet<>();
+        vocabulary.addAll(Tokenizer.tokenize(property.getTitle()));
+        vocabulary.addAll(Tokenizer.tokenize(property.getCity()));
+        vocabulary.addAll(Tokenizer.tokenize(property.getAddress()));
+
+        List<String> contributed = new ArrayList<>(vocabulary.size());
+        for (String term : vocabulary) {
+            if (term.length() >= MIN_INDEXED_LENGTH && isCorrectable(term) && addTerm(term)) {
+                contributed.add(term);
+            }
+        }
+        documentTerms.put(property.getId(), contributed.toArray(new String[0]));
+    }
+
+    private static boolean isCorrectable(String term) {
+        if (term.length() > MAX_TERM_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isLetter(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean addTerm(String term) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            if (termIds.size() >= MAX_TERMS) {
+                return false;
+            }
+            id = freeIds.isEmpty() ? terms.size() : freeIds.pop();
+            if (id == terms.size()) {
+                terms.add(term);
+            } else {
+                terms.set(id, term);
+            }
+            if (id >= termCounts.length) {
+                termCounts = Arrays.copyOf(termCounts, termCounts.length * 2);
+            }
+            termIds.put(term, id);
+            for (long gram : trigrams(term)) {
+                trigrams.computeIfAbsent(gram, key -> new IntSet()).add(id);
+            }
+        }
+        termCounts[id]++;
+        return true;
+    }
+
+    private void unindex(Long propertyId) {
+        String[] contributed = documentTerms.remove(propertyId);
+        if (contributed == null) {
+            return;
+        }
+        for (String term : contributed) {
+            int id = termIds.get(term);
+            if (--termCounts[id] > 0) {
+                continue;
+            }
+            termIds.remove(term);
+            terms.set(id, null);
+            freeIds.push(id);
+            for (long gram : trigrams(term)) {
+                IntSet ids = trigrams.get(gram);
+                ids.remove(id);
+                if (ids.size == 0) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /** Growable sorted set of term ids. */
+    private static final class IntSet {
+
+        static final IntSet EMPTY = new IntSet();
+
+        int[] values = new int[4];
+        int size;
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        void add(int value) {
+            int index = size > 0 && values[size - 1] < value ? -(size + 1) : Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            index = -(index + 1);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        void remove(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    private static final class Correction {
+
+        final String term;
+        final int distance;
+        final double jaccard;
+
+        Correction(String term, int distance, double jaccard) {
+            this.term = term;
+            this.distance = distance;
+            this.jaccard = jaccard;
+        }
+    }
+}
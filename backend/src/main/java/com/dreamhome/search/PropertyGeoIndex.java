@@ -0,0 +1,240 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Uniform latitude/longitude grid over AVAILABLE listings that have
+ * coordinates. Radius and bounding-box queries only visit the cells that
+ * overlap the search area and return ids ordered by great-circle distance.
+ */
+@Component
+public class PropertyGeoIndex implements PropertyIndex {
+
+    public static final double MAX_RADIUS_KM = 500;
+
+    // Widest bounding box, in degrees of latitude and of longitude: at most 100x100 cells
+    public static final double MAX_BOX_DEGREES = 10;
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // ~11 km of latitude per cell: a 5 km radius search touches at most 3x3 cells
+    private static final double CELL_DEGREES = 0.1;
+    private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(property.getId());
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Listings within {@code radiusKm} of the point accepted by {@code filter}, nearest first. */
+    public SearchHits near(double lat, double lng, double radiusKm, LongPredicate filter, int offset, int limit) {
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        double dLat = Math.toDegrees(angle);
+        // Widest longitude span of the circle; one around a pole reaches every longitude
+        double dLng = lat + dLat >= 90 || lat - dLat <= -90 ? 180
+                : Math.toDegrees(Math.asin(Math.min(1, Math.sin(angle) / Math.cos(Math.toRadians(lat)))));
+
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            forEachCandidate(lat - dLat, lat + dLat, lng - dLng, lng + dLng, point -> {
+                double distance = distanceKm(lat, lng, point.lat, point.lng);
+                if (distance <= radiusKm && filter.test(point.id)) {
+                    hits.add(new Hit(point.id, distance));
+                }
+            });
+            return page(hits, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Listings inside the box accepted by {@code filter}, nearest to the box
+     * centre first. {@code minLng > maxLng} denotes a box crossing the antimeridian.
+     */
+    public SearchHits within(double minLat, double minLng, double maxLat, double maxLng,
+                             LongPredicate filter, int offset, int limit) {
+        double centerLat = (minLat + maxLat) / 2;
+        double width = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        double centerLng = normalizeLng(minLng + width / 2);
+
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            forEachCandidate(minLat, maxLat, minLng, minLng + width, point -> {
+                if (point.lat >= minLat && point.lat <= maxLat
+                        && insideLngRange(point.lng, minLng, maxLng) && filter.test(point.id)) {
+                    hits.add(new Hit(point.id, distanceKm(centerLat, centerLng, point.lat, point.lng)));
+                }
+            });
+            return page(hits, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Visits the points of every cell overlapping the box; longitudes may run past 180. */
+    private void forEachCandidate(double minLat, double maxLat, double minLng, double maxLng,
+                                  Consumer<Point> visitor) {
+        int firstRow = row(Math.max(-90, minLat));
+        int lastRow = row(Math.min(90, maxLat));
+        int firstColumn = (int) Math.floor((minLng + 180) / CELL_DEGREES);
+        int lastColumn = (int) Math.floor((maxLng + 180) / CELL_DEGREES);
+        if (lastColumn - firstColumn >= COLUMNS) {
+            firstColumn = 0;
+            lastColumn = COLUMNS - 1;
+        }
+
+        // Near the poles even a capped search spans whole rows; then walk the occupied cells instead
+        if ((long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > cells.size()) {
+            int columnSpan = lastColumn - firstColumn;
+            for (Map.Entry<Integer, List<Point>> cell : cells.entrySet()) {
+                int r = cell.getKey() / COLUMNS;
+                int c = cell.getKey() % COLUMNS;
+                if (r >= firstRow && r <= lastRow && Math.floorMod(c - firstColumn, COLUMNS) <= columnSpan) {
+                    cell.getValue().forEach(visitor);
+                }
+            }
+            return;
+        }
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                List<Point> cell = cells.get(cellKey(r, Math.floorMod(c, COLUMNS)));
+                if (cell != null) {
+                    cell.forEach(visitor);
+                }
+            }
+        }
+    }
+
+    private static SearchHits page(List<Hit> hits, int offset, int limit) {
+        hits.sort(Comparator.comparingDouble((Hit hit) -> hit.distanceKm).thenComparingLong(hit -> hit.id));
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < hits.size() && i < offset + limit; i++) {
+            ids.add(hits.get(i).id);
+        }
+        return new SearchHits(ids, hits.size());
+    }
+
+    private void add(Property property) {
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return;
+        }
+        Point point = new Point(property.getId(), property.getLatitude(), normalizeLng(property.getLongitude()));
+        points.put(point.id, point);
+        cells.computeIfAbsent(cellKey(point.lat, point.lng), key -> new ArrayList<>()).add(point);
+    }
+
+    private void unindex(Long propertyId) {
+        Point point = points.remove(propertyId);
+        if (point == null) {
+            return;
+        }
+        int key = cellKey(point.lat, point.lng);
+        List<Point> cell = cells.get(key);
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private static int row(double lat) {
+        return Math.min(ROWS - 1, (int) Math.floor((lat + 90) / CELL_DEGREES));
+    }
+
+    private static int cellKey(double lat, double lng) {
+        int column = Math.min(COLUMNS - 1, (int) Math.floor((lng + 180) / CELL_DEGREES));
+        return cellKey(row(lat), column);
+    }
+
+    private static int cellKey(int row, int column) {
+        return row * COLUMNS + column;
+    }
+
+    private static boolean insideLngRange(double lng, double minLng, double maxLng) {
+        return minLng <= maxLng ? lng >= minLng && lng <= maxLng : lng >= minLng || lng <= maxLng;
+    }
+
+    static double normalizeLng(double lng) {
+        double wrapped = ((lng + 180) % 360 + 360) % 360 - 180;
+        return wrapped == -180 && lng > 0 ? 180 : wrapped;
+    }
+
+    /** Haversine great-circle distance. */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static final class Point {
+
+        final long id;
+        final double lat;
+        final double lng;
+
+        Point(long id, double lat, double lng) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+        }
+    }
+
+    private static final class Hit {
+
+        final long id;
+        final double distanceKm;
+
+        Hit(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
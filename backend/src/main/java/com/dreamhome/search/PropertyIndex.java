@@ -0,0 +1,32 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+
+import java.util.Collection;
+
+/**
+ * An in-memory structure over AVAILABLE listings that is kept current by
+ * {@link PropertyIndexManager}. Implementations must be safe for concurrent
+ * reads while a single writer applies changes.
+ */
+public interface PropertyIndex {
+
+    /** Replaces the whole index content with the given properties. */
+    void rebuild(Collection<Property> properties);
+
+    /** Adds the property, or replaces the previous version with the same id. */
+    void upsert(Property property);
+
+    /**
+     * {@link #upsert} for a batch; the last version of a repeated id wins.
+     * Copy-on-write indexes override it to publish one new version per batch.
+     */
+    default void upsertAll(Collection<Property> properties) {
+        for (Property property : properties) {
+            upsert(property);
+        }
+    }
+
+    /** Drops the property if it is indexed; unknown ids are ignored. */
+    void remove(Long propertyId);
+}
@@ -0,0 +1,82 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Owns the lifecycle of every {@link PropertyIndex}: loads them once the
+ * application is ready and forwards listing mutations from PropertyService.
+ * Only AVAILABLE properties are indexed; any other status removes the listing.
+ */
+@Component
+public class PropertyIndexManager {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private List<PropertyIndex> indexes;
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Property> available = propertyRepository.findByStatus(PropertyStatus.AVAILABLE);
+        for (PropertyIndex index : indexes) {
+            index.rebuild(available);
+        }
+        ready = true;
+        System.out.println("Property indexes built for " + available.size() + " listings in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void propertySaved(Property property) {
+        if (property.getStatus() != PropertyStatus.AVAILABLE) {
+            propertyDeleted(property.getId());
+            return;
+        }
+        for (PropertyIndex index : indexes) {
+            index.upsert(property);
+        }
+    }
+
+    /** {@link #propertySaved} for a batch, e.g. one import chunk, applied to each index in one step. */
+    public void upsertAll(Collection<Property> properties) {
+        List<Property> available = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            if (property.getStatus() == PropertyStatus.AVAILABLE) {
+                available.add(property);
+            } else {
+                propertyDeleted(property.getId());
+            }
+        }
+        if (available.isEmpty()) {
+            return;
+        }
+        for (PropertyIndex index : indexes) {
+            index.upsertAll(available);
+        }
+    }
+
+    public void propertyDeleted(Long propertyId) {
+        for (PropertyIndex index : indexes) {
+            index.remove(propertyId);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over title, description, address and city of
+ * AVAILABLE properties. Replaces the four-column {@code LIKE '%kw%'} scan
+ * behind /properties/search.
+ *
+ * <p>Every query term must match (AND). Terms of {@value #MIN_PREFIX_LENGTH}
+ * or more characters also match indexed tokens they are a prefix of, so
+ * "spring" still finds "Springfield". Hits are ranked by field-weighted
+ * term frequency, exact token matches scoring double, ties broken by newest id.
+ *
+ * <p>Postings are id-sorted primitive arrays, so multi-term queries are linear
+ * merges and a query allocates a handful of arrays rather than one object per hit.
+ */
+@Component
+public class PropertySearchIndex implements PropertyIndex {
+
+    static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final int TITLE_WEIGHT = 4;
+    private static final int CITY_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+
+    // property id -> terms it was indexed under, needed to unindex on update/delete
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(docId(property.getId()));
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(docId(propertyId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids ranked {@code offset .. offset + limit} for the query,
+     * together with the total number of matching listings.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<List<String>> clauses = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+            clauses.add(Collections.singletonList(term));
+        }
+        return search(clauses, offset, limit);
+    }
+
+    /**
+     * Like {@link #search(String, int, int)} with every clause matching if
+     * any of its terms does. The first term of a clause is the one the user
+     * typed and keeps prefix matching and the exact-match boost; the others
+     * (spelling corrections) only match whole tokens.
+     */
+    public SearchHits search(List<List<String>> clauses, int offset, int limit) {
+        if (clauses.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> matches = new ArrayList<>(clauses.size());
+            for (List<String> clause : clauses) {
+                Postings clausePostings = matchClause(clause);
+                if (clausePostings.size == 0) {
+                    return SearchHits.EMPTY;
+                }
+                matches.add(clausePostings);
+            }
+            // Intersect rarest first so every merge walks the shortest possible list
+            matches.sort(Comparator.comparingInt(p -> p.size));
+
+            Postings result = matches.get(0);
+            for (int i = 1; i < matches.size() && result.size > 0; i++) {
+                result = Postings.intersect(result, matches.get(i));
+            }
+            return topHits(result, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings matchClause(List<String> clause) {
+        Postings typed = matchTerm(clause.get(0));
+        if (clause.size() == 1) {
+            return typed;
+        }
+        List<Postings> parts = new ArrayList<>(clause.size());
+        parts.add(typed);
+        for (String correction : clause.subList(1, clause.size())) {
+            Postings exact = postings.get(correction);
+            if (exact != null) {
+                parts.add(exact);
+            }
+        }
+        return Postings.union(parts);
+    }
+
+    /**
+     * Postings for the exact token, or the union of every token the term
+     * prefixes (keeping the best weight per listing). Exact hits are boosted.
+     */
+    private Postings matchTerm(String term) {
+        Postings exact = postings.get(term);
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            return exact == null ? Postings.EMPTY : exact.scaled(2);
+        }
+
+        SortedMap<String, Postings> range = postings.subMap(term, term + Character.MAX_VALUE);
+        if (range.size() == 1 && exact != null) {
+            return exact.scaled(2);
+        }
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+
+        List<Postings> parts = new ArrayList<>(range.size());
+        for (Map.Entry<String, Postings> entry : range.entrySet()) {
+            parts.add(entry.getKey().equals(term) ? entry.getValue().scaled(2) : entry.getValue());
+        }
+        return Postings.union(parts);
+    }
+
+    private SearchHits topHits(Postings result, int offset, int limit) {
+        if (limit <= 0 || offset >= result.size) {
+            return new SearchHits(Collections.emptyList(), result.size);
+        }
+
+        // (score << 32 | id): higher score first, newest listing on ties
+        long[] keys = new long[result.size];
+        for (int i = 0; i < result.size; i++) {
+            keys[i] = ((long) result.weights[i] << 32) | result.docs[i];
+        }
+        long[] ranked = TopK.largest(keys, keys.length, offset + limit);
+
+        List<Long> ids = new ArrayList<>(ranked.length - offset);
+        for (int i = offset; i < ranked.length; i++) {
+            ids.add((long) (int) ranked[i]);
+        }
+        return new SearchHits(ids, result.size);
+    }
+
+    private void add(Property property) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, property.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, property.getCity(), CITY_WEIGHT);
+        addField(frequencies, property.getAddress(), ADDRESS_WEIGHT);
+        addField(frequencies, property.getDescription(), DESCRIPTION_WEIGHT);
+
+        int doc = docId(property.getId());
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings(4)).put(doc, entry.getValue());
+        }
+        documentTerms.put(doc, frequencies.keySet().toArray(new String[0]));
+    }
+
+    private void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void unindex(int doc) {
+        String[] terms = documentTerms.remove(doc);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings docs = postings.get(term);
+            if (docs != null && docs.delete(doc) && docs.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    static int docId(Long propertyId) {
+        return Math.toIntExact(propertyId);
+    }
+
+    /** Growable, id-sorted parallel arrays of listing ids and term weights. */
+    private static final class Postings {
+
+        static final Postings EMPTY = new Postings(0);
+
+        int[] docs;
+        int[] weights;
+        int size;
+
+        Postings(int capacity) {
+            docs = new int[capacity];
+            weights = new int[capacity];
+        }
+
+        void put(int doc, int weight) {
+            // New listings carry the highest id, so this is almost always an append
+            int index = size > 0 && docs[size - 1] < doc ? -(size + 1) : Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -(index + 1);
+            if (size == docs.length) {
+                int capacity = Math.max(4, size * 2);
+                docs = Arrays.copyOf(docs, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            docs[index] = doc;
+            weights[index] = weight;
+            size++;
+        }
+
+        boolean delete(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        Postings scaled(int factor) {
+            Postings copy = new Postings(size);
+            System.arraycopy(docs, 0, copy.docs, 0, size);
+            for (int i = 0; i < size; i++) {
+                copy.weights[i] = weights[i] * factor;
+            }
+            copy.size = size;
+            return copy;
+        }
+
+        /** Listings in any of the parts, each keeping its best weight. */
+        static Postings union(List<Postings> parts) {
+            int total = 0;
+            for (Postings p : parts) {
+                total += p.size;
+            }
+            long[] packed = new long[total];
+            int n = 0;
+            for (Postings p : parts) {
+                for (int i = 0; i < p.size; i++) {
+                    packed[n++] = ((long) p.docs[i] << 32) | p.weights[i];
+                }
+            }
+            Arrays.sort(packed);
+
+            Postings union = new Postings(total);
+            for (long value : packed) {
+                int doc = (int) (value >>> 32);
+                int weight = (int) value;
+                if (union.size > 0 && union.docs[union.size - 1] == doc) {
+                    // sorted ascending, so the later entry for the same doc carries the higher weight
+                    union.weights[union.size - 1] = weight;
+                } else {
+                    union.docs[union.size] = doc;
+                    union.weights[union.size] = weight;
+                    union.size++;
+                }
+            }
+            return union;
+        }
+
+        static Postings intersect(Postings a, Postings b) {
+            Postings out = new Postings(Math.min(a.size, b.size));
+            int i = 0;
+            int j = 0;
+            while (i < a.size && j < b.size) {
+                int da = a.docs[i];
+                int db = b.docs[j];
+                if (da == db) {
+                    out.docs[out.size] = da;
+                    out.weights[out.size] = a.weights[i] + b.weights[j];
+                    out.size++;
+                    i++;
+                    j++;
+                } else if (da < db) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return out;
+        }
+    }
+}
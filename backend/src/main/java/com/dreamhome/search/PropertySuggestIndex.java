@@ -0,0 +1,184 @@
+package com.dreamhome.search;
+
+import com.dreamhome.dto.SuggestionDto;
+import com.dreamhome.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead dictionary of the cities, states, zip codes and titles of
+ * AVAILABLE listings, weighted by how many listings carry each value.
+ *
+ * <p>Entries live in a sorted map so a prefix is a contiguous range. Short or
+ * common prefixes can span most of the dictionary, so each prefix's top
+ * completions are memoized; a mutation evicts only the prefixes of the
+ * values it touched.
+ */
+@Component
+public class PropertySuggestIndex implements PropertyIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Safety valve against unbounded growth from one-off prefixes
+    private static final int MAX_CACHED_PREFIXES = 50_000;
+
+    /** Declaration order is also the tie-break when weights are equal. */
+    enum Kind { CITY, STATE, ZIP, TITLE }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // normalized text + '\0' + kind -> entry
+    private final NavigableMap<String, Entry> entries = new TreeMap<>();
+
+    // property id -> dictionary keys it contributed to
+    private final Map<Long, String[]> contributions = new HashMap<>();
+
+    // normalized prefix -> top MAX_SUGGESTIONS completions
+    private final Map<String, List<SuggestionDto>> prefixCache = new ConcurrentHashMap<>();
+
+    @Override
+    public void rebuild(Collection<Property> properties) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            contributions.clear();
+            for (Property property : properties) {
+                add(property);
+            }
+            prefixCache.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            unindex(property.getId());
+            add(property);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            unindex(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} completions of {@code prefix}, most popular first. */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String normalized = Tokenizer.normalize(prefix).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<SuggestionDto> suggestions = prefixCache.get(normalized);
+            if (suggestions == null) {
+                if (prefixCache.size() >= MAX_CACHED_PREFIXES) {
+                    prefixCache.clear();
+                }
+                suggestions = topCompletions(normalized, MAX_SUGGESTIONS);
+                prefixCache.put(normalized, suggestions);
+            }
+            return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SuggestionDto> topCompletions(String prefix, int limit) {
+        // Min-heap holding the best `limit` entries seen so far
+        PriorityQueue<Entry> heap = new PriorityQueue<>(limit + 1, PropertySuggestIndex::rank);
+        for (Entry entry : entries.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            if (heap.size() < limit) {
+                heap.offer(entry);
+            } else if (rank(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+
+        List<SuggestionDto> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Entry entry = heap.poll();
+            result.add(new SuggestionDto(entry.display, entry.kind.name(), entry.weight));
+        }
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /** Higher weight first, then city before state, zip and title, then alphabetical. */
+    private static int rank(Entry a, Entry b) {
+        if (a.weight != b.weight) {
+            return Integer.compare(a.weight, b.weight);
+        }
+        if (a.kind != b.kind) {
+            return Integer.compare(b.kind.ordinal(), a.kind.ordinal());
+        }
+        return b.display.compareTo(a.display);
+    }
+
+    private void add(Property property) {
+        List<String> keys = new ArrayList<>(4);
+        addValue(keys, Kind.CITY, property.getCity());
+        addValue(keys, Kind.STATE, property.getState());
+        addValue(keys, Kind.ZIP, property.getZipCode());
+        addValue(keys, Kind.TITLE, property.getTitle());
+        contributions.put(property.getId(), keys.toArray(new String[0]));
+    }
+
+    private void addValue(List<String> keys, Kind kind, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String text = Tokenizer.normalize(value).trim();
+        String key = text + '\0' + kind.ordinal();
+        entries.computeIfAbsent(key, k -> new Entry(kind, value.trim())).weight++;
+        keys.add(key);
+        evictPrefixes(text);
+    }
+
+    private void unindex(Long propertyId) {
+        String[] keys = contributions.remove(propertyId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null && --entry.weight == 0) {
+                entries.remove(key);
+            }
+            evictPrefixes(key.substring(0, key.indexOf('\0')));
+        }
+    }
+
+    private void evictPrefixes(String text) {
+        for (int end = 1; end <= text.length(); end++) {
+            prefixCache.remove(text.substring(0, end));
+        }
+    }
+
+    private static final class Entry {
+
+        final Kind kind;
+        final String display;
+        int weight;
+
+        Entry(Kind kind, String display) {
+            this.kind = kind;
+            this.display = display;
+        }
+    }
+}
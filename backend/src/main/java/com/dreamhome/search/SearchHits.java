@@ -0,0 +1,22 @@
+package com.dreamhome.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/** A ranked page of property ids plus the total number of matches. */
+public class SearchHits {
+
+    static final SearchHits EMPTY = new SearchHits(Collections.emptyList(), 0);
+
+    private final List<Long> ids;
+    private final long total;
+
+    public SearchHits(List<Long> ids, long total) {
+        this.ids = ids;
+        this.total = total;
+    }
+
+    public List<Long> getIds() { return ids; }
+
+    public long getTotal() { return total; }
+}
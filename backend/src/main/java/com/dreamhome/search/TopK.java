@@ -0,0 +1,77 @@
+package com.dreamhome.search;
+
+import java.util.Arrays;
+
+/**
+ * Bounded selection over packed {@code long} keys, used to rank only the rows
+ * a page actually needs instead of sorting every hit.
+ */
+final class TopK {
+
+    private TopK() {}
+
+    /** Returns the {@code k} largest of {@code values[0..n)}, largest first. */
+    static long[] largest(long[] values, int n, int k) {
+        int capacity = Math.min(Math.max(k, 0), n);
+        long[] heap = new long[capacity];
+        if (capacity == 0) {
+            return heap;
+        }
+
+        // Min-heap: the root is the weakest of the best `capacity` values seen so far
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            long value = values[i];
+            if (size < capacity) {
+                heap[size] = value;
+                siftUp(heap, size++);
+            } else if (value > heap[0]) {
+                heap[0] = value;
+                siftDown(heap, size);
+            }
+        }
+
+        Arrays.sort(heap);
+        for (int i = 0, j = heap.length - 1; i < j; i++, j--) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+        return heap;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            long tmp = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = tmp;
+            index = smallest;
+        }
+    }
+}
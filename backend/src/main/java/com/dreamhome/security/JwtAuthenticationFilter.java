@@ -1,6 +1,7 @@
 package com.dreamhome.security;
 
 import com.dreamhome.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,10 +19,13 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private JwtUtil jwtUtil;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private UserAccessRegistry userAccessRegistry;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -31,26 +33,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
+        Claims claims = null;
         
-        // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
+        // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token.
+        // It is verified once here; everything below reads the resulting claims.
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                claims = jwtUtil.parseVerified(jwtToken);
             } catch (Exception e) {
                 logger.error("Unable to get JWT Token", e);
             }
         }
         
-        // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Once we get the token validate it. Revoked tokens are refused from memory.
+        if (claims != null && claims.getSubject() != null
+                && (claims.getId() == null || !tokenRevocationList.isRevoked(claims.getId()))
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Identity and role come from the token, checked against recent account changes; no query.
+            // Tokens without userId/role claims are not accepted.
+            JwtPrincipal fromToken = JwtPrincipal.fromClaims(claims);
+            JwtPrincipal userDetails = fromToken != null ? userAccessRegistry.authorize(fromToken) : null;
             
             // if token is valid configure Spring Security to manually set authentication
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (userDetails != null && jwtUtil.isValidFor(claims, userDetails)) {
                 
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                     new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,75 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.Role;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The authenticated user as described by a verified access token: id,
+ * username and role, with no database lookup. Status is checked by
+ * UserAccessRegistry before one of these is trusted.
+ */
+public class JwtPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+
+    public JwtPrincipal(Long userId, String username, Role role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    /** The principal named by the token, or null when it lacks the userId or role claim. */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        if (!(userId instanceof Number) || !(role instanceof String) || claims.getSubject() == null) {
+            return null;
+        }
+        try {
+            return new JwtPrincipal(((Number) userId).longValue(), claims.getSubject(), Role.valueOf((String) role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Long getUserId() { return userId; }
+
+    public Role getRole() { return role; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    // Tokens never carry the password
+    @Override
+    public String getPassword() { return null; }
+
+    @Override
+    public boolean isAccountNonExpired() { return true; }
+
+    @Override
+    public boolean isAccountNonLocked() { return true; }
+
+    @Override
+    public boolean isCredentialsNonExpired() { return true; }
+
+    @Override
+    public boolean isEnabled() { return true; }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
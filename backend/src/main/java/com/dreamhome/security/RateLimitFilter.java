@@ -0,0 +1,207 @@
+package com.dreamhome.security;
+
+import com.dreamhome.config.RateLimitProperties;
+import com.dreamhome.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the routes configured under {@code rate-limit.routes}, once per
+ * client IP and once per authenticated user (the JWT subject), answering
+ * 429 with Retry-After when either is exhausted. Runs after
+ * JwtAuthenticationFilter so the user is known.
+ *
+ * <p>Each limit is a token bucket in its GCRA form: a single AtomicLong
+ * holding the time the bucket will be full again, advanced by CAS, so
+ * there are no locks. Buckets live in one map per route and key kind,
+ * keyed by the IP or username string the request already holds, so a
+ * lookup for a known client allocates nothing. A bucket whose full-again
+ * time has passed is indistinguishable from a new one; those are dropped
+ * every {@code rate-limit.idle-eviction}.
+ *
+ * <p>The client IP is {@code request.getRemoteAddr()}. Behind a proxy,
+ * set {@code server.forward-headers-strategy} so it is the real client.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<Route> routes = List.of();
+
+    private static final class Route {
+
+        private final String name;
+        private final String path;
+        private final boolean prefix;
+        private final String method;
+        // Nanoseconds per request at the refill rate, and how far ahead of now the bucket may run
+        private final long interval;
+        private final long burstTolerance;
+        private final Map<String, Bucket> byIp = new ConcurrentHashMap<>();
+        private final Map<String, Bucket> byUser = new ConcurrentHashMap<>();
+        private final Counter ipRejections;
+        private final Counter userRejections;
+
+        Route(String name, RateLimitProperties.Route config, MeterRegistry meterRegistry) {
+            if (config.getPath() == null || config.getCapacity() <= 0 || config.getPerMinute() <= 0) {
+                throw new IllegalStateException("rate-limit.routes." + name + " needs a path, capacity and per-minute");
+            }
+            this.name = name;
+            this.prefix = config.getPath().endsWith("/**");
+            this.path = prefix ? config.getPath().substring(0, config.getPath().length() - 3) : config.getPath();
+            this.method = config.getMethod();
+            this.interval = TimeUnit.MINUTES.toNanos(1) / config.getPerMinute();
+            this.burstTolerance = interval * config.getCapacity();
+            this.ipRejections = meterRegistry.counter("rate.limit.rejected", "route", name, "key", "ip");
+            this.userRejections = meterRegistry.counter("rate.limit.rejected", "route", name, "key", "user");
+        }
+
+        // Compares in place against the URI, skipping the context path, without building substrings
+        boolean matches(HttpServletRequest request, String uri, int contextLength) {
+            if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+                return false;
+            }
+            if (!uri.startsWith(path, contextLength)) {
+                return false;
+            }
+            int end = contextLength + path.length();
+            return uri.length() == end || (prefix && uri.charAt(end) == '/');
+        }
+
+        /** 0 if the request may proceed, otherwise nanoseconds until it would. */
+        long acquire(Map<String, Bucket> buckets, String key, long now) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, newKey -> new Bucket(now));
+            }
+            return bucket.acquire(now, interval, burstTolerance);
+        }
+    }
+
+    // Package-private for RateLimitFilterTest
+    static final class Bucket {
+
+        // When the bucket is full again (System.nanoTime based)
+        private final AtomicLong fullAt;
+
+        // Starts full as of the caller's clock reading, so its first burst gets the whole capacity
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long acquire(long now, long interval, long burstTolerance) {
+            while (true) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + interval;
+                long wait = next - burstTolerance - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        List<Route> configured = new ArrayList<>();
+        properties.getRoutes().forEach((name, route) -> configured.add(new Route(name, route, meterRegistry)));
+        routes = List.copyOf(configured);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        int contextLength = request.getContextPath().length();
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            if (route.matches(request, uri, contextLength)) {
+                long now = System.nanoTime();
+                long wait = route.acquire(route.byIp, request.getRemoteAddr(), now);
+                if (wait > 0) {
+                    route.ipRejections.increment();
+                    reject(response, route, wait);
+                    return;
+                }
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken)) {
+                    wait = route.acquire(route.byUser, authentication.getName(), now);
+                    if (wait > 0) {
+                        route.userRejections.increment();
+                        reject(response, route, wait);
+                        return;
+                    }
+                }
+                break;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, Route route, long waitNanos) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                "TOO_MANY_REQUESTS",
+                "Rate limit exceeded for " + route.name + ", retry in " + seconds + " s",
+                LocalDateTime.now()));
+    }
+
+    // A request racing with the removal of its bucket is counted against the dropped one
+    @Scheduled(fixedDelayString = "${rate-limit.idle-eviction:PT5M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Route route : routes) {
+            route.byIp.values().removeIf(bucket -> bucket.isFull(now));
+            route.byUser.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.RevokedToken;
+import com.dreamhome.repository.RevokedTokenRepository;
+import com.dreamhome.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ids (jti) of revoked access tokens that have not expired yet, so the
+ * JWT filter can refuse them without a query. A lookup first asks a Bloom
+ * filter, which answers "not revoked" for almost every token with a few
+ * array reads; only its rare positives reach the exact map.
+ *
+ * <p>Built from revoked_tokens at startup. Revocations committed on this
+ * instance apply immediately through Hibernate's post-commit events;
+ * those from other instances arrive with the next incremental refresh
+ * ({@code jwt.revocation.refresh}). Entries are dropped once their token
+ * has expired, and the Bloom filter is rebuilt then, or when it outgrows
+ * its size.
+ */
+@Component
+public class TokenRevocationList implements PostCommitInsertEventListener {
+
+    // Re-read this much before the last refresh, for rows committed late
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${jwt.revocation.expected-size:10000}")
+    private int expectedSize;
+
+    // Token id -> when the token expires anyway
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    // Holds at least every key of the map; replaced, never cleared
+    private volatile BloomFilter filter = new BloomFilter(1, FALSE_POSITIVE_RATE);
+
+    private int filterCapacity = 1;
+
+    private volatile LocalDateTime refreshedAt;
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+                revoked.put(token.getTokenId(), token.getExpiresAt());
+            }
+            rebuildFilter();
+        }
+        refreshedAt = now;
+    }
+
+    /** Whether the access token with this id was revoked. */
+    public boolean isRevoked(String tokenId) {
+        // The map is written before the filter, so a filter hit always finds its entry
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh:PT10S}",
+            fixedDelayString = "${jwt.revocation.refresh:PT10S}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtGreaterThanEqual(refreshedAt.minus(OVERLAP))) {
+            record(token.getTokenId(), token.getExpiresAt());
+        }
+        refreshedAt = now;
+        if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+            synchronized (this) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    private synchronized void record(String tokenId, LocalDateTime expiresAt) {
+        if (expiresAt.isBefore(LocalDateTime.now()) || revoked.put(tokenId, expiresAt) != null) {
+            return;
+        }
+        if (revoked.size() > filterCapacity) {
+            rebuildFilter();
+        } else {
+            filter.add(tokenId);
+        }
+    }
+
+    // Callers hold the lock, so no revocation lands in a filter that is about to be replaced
+    private void rebuildFilter() {
+        filterCapacity = Math.max(expectedSize, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == RevokedToken.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof RevokedToken token) {
+            record(token.getTokenId(), token.getExpiresAt());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+}
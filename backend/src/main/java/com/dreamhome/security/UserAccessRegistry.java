@@ -0,0 +1,146 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.Role;
+import com.dreamhome.entity.User;
+import com.dreamhome.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The current username, role and active flag of every user changed within
+ * the lifetime of an access token, so that tokens issued before a change
+ * are judged by the change without a query per request. A user with no
+ * entry has not changed since any live token was issued, so the token's
+ * own claims are current.
+ *
+ * <p>Changes committed on this instance apply immediately through
+ * Hibernate's post-commit events. Changes from other instances arrive
+ * with the next incremental refresh ({@code jwt.user-access-refresh}),
+ * one query over users updated since the previous one. Deletions are only
+ * seen by the instance that made them; elsewhere the deleted user's token
+ * authenticates but finds no account behind it.
+ */
+@Component
+public class UserAccessRegistry implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    // Re-read this much before the last refresh, for rows committed late
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${jwt.expiration}")
+    private Long tokenLifetimeMillis;
+
+    private final Map<Long, UserAccess> changes = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime refreshedAt;
+
+    private static class UserAccess {
+
+        private final String username;
+        private final Role role;
+        private final boolean active;
+        private final LocalDateTime changedAt;
+
+        UserAccess(String username, Role role, boolean active, LocalDateTime changedAt) {
+            this.username = username;
+            this.role = role;
+            this.active = active;
+            this.changedAt = changedAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        refresh();
+    }
+
+    /**
+     * The principal to trust for a verified token, with the user's current
+     * role, or null if the user was deactivated, deleted or renamed since.
+     */
+    public JwtPrincipal authorize(JwtPrincipal fromToken) {
+        UserAccess access = changes.get(fromToken.getUserId());
+        if (access == null) {
+            return fromToken;
+        }
+        if (!access.active || !access.username.equals(fromToken.getUsername())) {
+            return null;
+        }
+        return access.role == fromToken.getRole()
+                ? fromToken : new JwtPrincipal(fromToken.getUserId(), fromToken.getUsername(), access.role);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.user-access-refresh:PT10S}",
+            fixedDelayString = "${jwt.user-access-refresh:PT10S}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestLiveToken = now.minus(Duration.ofMillis(tokenLifetimeMillis));
+        LocalDateTime since = refreshedAt == null ? oldestLiveToken : refreshedAt.minus(OVERLAP);
+        for (Object[] row : userRepository.findAccessChangesSince(since)) {
+            record((Long) row[0], new UserAccess((String) row[1], (Role) row[2],
+                    Boolean.TRUE.equals(row[3]), (LocalDateTime) row[4]));
+        }
+        refreshedAt = now;
+        // Every token issued before these changes has expired
+        changes.values().removeIf(access -> access.changedAt.isBefore(oldestLiveToken));
+    }
+
+    // Keeps whichever state is newer, so a refresh never undoes a later local change
+    private void record(Long userId, UserAccess access) {
+        changes.merge(userId, access,
+                (current, candidate) -> candidate.changedAt.isBefore(current.changedAt) ? current : candidate);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == User.class;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            LocalDateTime changedAt = user.getUpdatedAt() != null ? user.getUpdatedAt() : LocalDateTime.now();
+            record(user.getId(), new UserAccess(user.getUsername(), user.getRole(),
+                    Boolean.TRUE.equals(user.getIsActive()), changedAt));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            record(user.getId(), new UserAccess(user.getUsername(), user.getRole(), false, LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+}
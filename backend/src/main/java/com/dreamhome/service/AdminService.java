@@ -1,10 +1,13 @@
 package com.dreamhome.service;
 
+import com.dreamhome.dto.InquirySummaryDto;
 import com.dreamhome.dto.UserDto;
 import com.dreamhome.entity.*;
 import com.dreamhome.repository.InquiryRepository;
 import com.dreamhome.repository.PropertyRepository;
 import com.dreamhome.repository.UserRepository;
+import com.dreamhome.stats.DashboardCounters;
+import com.dreamhome.stats.ParallelQueries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -12,10 +15,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,38 +41,36 @@ public class AdminService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    // Dashboard Statistics
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private ParallelQueries parallelQueries;
+
+    @Autowired
+    private AuthService authService;
+
+    // Dashboard Statistics (served from the in-memory counters, no queries)
     public Map<String, Object> getDashboardStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
         // User statistics
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByIsActiveTrue();
-        long adminUsers = userRepository.countByRole(Role.ADMIN);
+        stats.put("totalUsers", dashboardCounters.totalUsers());
+        stats.put("activeUsers", dashboardCounters.activeUsers());
+        stats.put("adminUsers", dashboardCounters.usersWithRole(Role.ADMIN));
         
         // Property statistics
-        long totalProperties = propertyRepository.count();
-        long availableProperties = propertyRepository.countByStatus(PropertyStatus.AVAILABLE);
-        long soldProperties = propertyRepository.countByStatus(PropertyStatus.SOLD);
+        stats.put("totalProperties", dashboardCounters.totalProperties());
+        stats.put("availableProperties", dashboardCounters.propertiesWithStatus(PropertyStatus.AVAILABLE));
+        stats.put("soldProperties", dashboardCounters.propertiesWithStatus(PropertyStatus.SOLD));
         
         // Inquiry statistics
-        long totalInquiries = inquiryRepository.count();
-        long pendingInquiries = inquiryRepository.countByStatus(InquiryStatus.PENDING);
+        stats.put("totalInquiries", dashboardCounters.totalInquiries());
+        stats.put("pendingInquiries", dashboardCounters.inquiriesWithStatus(InquiryStatus.PENDING));
         
         // Recent activity
-        List<User> recentUsers = userRepository.findTop5ByOrderByCreatedAtDesc();
-        List<Property> recentProperties = propertyRepository.findTop5ByOrderByCreatedAtDesc();
-        
-        stats.put("totalUsers", totalUsers);
-        stats.put("activeUsers", activeUsers);
-        stats.put("adminUsers", adminUsers);
-        stats.put("totalProperties", totalProperties);
-        stats.put("availableProperties", availableProperties);
-        stats.put("soldProperties", soldProperties);
-        stats.put("totalInquiries", totalInquiries);
-        stats.put("pendingInquiries", pendingInquiries);
-        stats.put("recentUsers", recentUsers.stream().map(this::convertToUserDto).collect(Collectors.toList()));
-        stats.put("recentProperties", recentProperties);
+        stats.put("recentUsers", dashboardCounters.recentUsers());
+        stats.put("recentProperties", dashboardCounters.recentProperties());
         
         return stats;
     }
@@ -136,6 +141,8 @@ public class AdminService {
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        // Refresh tokens reference the user; their sessions must not outlive the account
+        authService.endAllSessions(user.getId());
         userRepository.delete(user);
     }
 
@@ -153,47 +160,95 @@ public class AdminService {
         return users.stream().map(this::convertToUserDto).collect(Collectors.toList());
     }
 
-    // Property Statistics
+    // Property Statistics: a status x type matrix plus price figures per type, from two
+    // queries run side by side. A query that fails or times out leaves its figures null
+    // and is named in "unavailable".
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getPropertyStatistics() {
-        Map<String, Object> stats = new HashMap<>();
+        CompletableFuture<List<Object[]>> summaryQuery =
+                parallelQueries.submit("property-summary", propertyRepository::summarizeByStatusAndType);
+        CompletableFuture<List<Object[]>> medianQuery =
+                parallelQueries.submit("property-median-price", propertyRepository::findMedianPriceByType);
+        Optional<List<Object[]>> summary = parallelQueries.await("property-summary", summaryQuery);
+        Optional<List<Object[]>> medianRows = parallelQueries.await("property-median-price", medianQuery);
+        
+        Map<PropertyStatus, Map<PropertyType, Long>> statusTypeCounts = new EnumMap<>(PropertyStatus.class);
+        for (PropertyStatus status : PropertyStatus.values()) {
+            Map<PropertyType, Long> row = new EnumMap<>(PropertyType.class);
+            for (PropertyType type : PropertyType.values()) {
+                row.put(type, 0L);
+            }
+            statusTypeCounts.put(status, row);
+        }
+        Map<PropertyStatus, Long> statusCounts = new EnumMap<>(PropertyStatus.class);
+        Map<PropertyType, Long> typeCounts = new EnumMap<>(PropertyType.class);
+        Map<PropertyType, BigDecimal> typePriceSums = new EnumMap<>(PropertyType.class);
+        for (PropertyStatus status : PropertyStatus.values()) {
+            statusCounts.put(status, 0L);
+        }
+        for (PropertyType type : PropertyType.values()) {
+            typeCounts.put(type, 0L);
+            typePriceSums.put(type, BigDecimal.ZERO);
+        }
         
-        long totalProperties = propertyRepository.count();
-        Map<PropertyStatus, Long> statusCounts = Arrays.stream(PropertyStatus.values())
-            .collect(Collectors.toMap(
-                status -> status,
-                status -> propertyRepository.countByStatus(status)
-            ));
+        long totalProperties = 0;
+        for (Object[] row : summary.orElse(List.of())) {
+            PropertyStatus status = (PropertyStatus) row[0];
+            PropertyType type = (PropertyType) row[1];
+            long count = (Long) row[2];
+            statusTypeCounts.get(status).put(type, count);
+            statusCounts.merge(status, count, Long::sum);
+            typeCounts.merge(type, count, Long::sum);
+            typePriceSums.merge(type, (BigDecimal) row[3], BigDecimal::add);
+            totalProperties += count;
+        }
         
-        Map<PropertyType, Long> typeCounts = Arrays.stream(PropertyType.values())
-            .collect(Collectors.toMap(
-                type -> type,
-                type -> propertyRepository.countByType(type)
-            ));
+        Map<PropertyType, BigDecimal> medians = new EnumMap<>(PropertyType.class);
+        for (Object[] row : medianRows.orElse(List.of())) {
+            medians.put(PropertyType.valueOf((String) row[0]), price(new BigDecimal(row[1].toString())));
+        }
+        
+        Map<PropertyType, Map<String, BigDecimal>> priceByType = new EnumMap<>(PropertyType.class);
+        for (PropertyType type : PropertyType.values()) {
+            long count = typeCounts.get(type);
+            Map<String, BigDecimal> prices = new HashMap<>();
+            prices.put("average", count == 0 ? null
+                    : typePriceSums.get(type).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP));
+            prices.put("median", medians.get(type));
+            priceByType.put(type, prices);
+        }
         
-        stats.put("totalProperties", totalProperties);
-        stats.put("statusCounts", statusCounts);
-        stats.put("typeCounts", typeCounts);
+        List<String> unavailable = new ArrayList<>();
+        Map<String, Object> stats = new HashMap<>();
+        if (summary.isPresent()) {
+            stats.put("totalProperties", totalProperties);
+            stats.put("statusCounts", statusCounts);
+            stats.put("typeCounts", typeCounts);
+            stats.put("statusTypeCounts", statusTypeCounts);
+        } else {
+            unavailable.add("counts");
+            stats.put("totalProperties", null);
+            stats.put("statusCounts", null);
+            stats.put("typeCounts", null);
+            stats.put("statusTypeCounts", null);
+        }
+        if (medianRows.isEmpty()) {
+            unavailable.add("medianPrices");
+        }
+        stats.put("priceByType", priceByType);
+        stats.put("unavailable", unavailable);
         
         return stats;
     }
 
+    private static BigDecimal price(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+
     // Inquiry Management
-    public Page<Map<String, Object>> getAllInquiries(int page, int size) {
+    public Page<InquirySummaryDto> getAllInquiries(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Inquiry> inquiries = inquiryRepository.findAll(pageable);
-        
-        return inquiries.map(inquiry -> {
-            Map<String, Object> inquiryMap = new HashMap<>();
-            inquiryMap.put("id", inquiry.getId());
-            inquiryMap.put("message", inquiry.getMessage());
-            inquiryMap.put("status", inquiry.getStatus());
-            inquiryMap.put("adminResponse", inquiry.getAdminResponse());
-            inquiryMap.put("createdAt", inquiry.getCreatedAt());
-            inquiryMap.put("updatedAt", inquiry.getUpdatedAt());
-            inquiryMap.put("user", convertToUserDto(inquiry.getUser()));
-            inquiryMap.put("property", inquiry.getProperty());
-            return inquiryMap;
-        });
+        return inquiryRepository.findSummaries(pageable);
     }
 
     public void respondToInquiry(Long inquiryId, String response) {
@@ -210,9 +265,9 @@ public class AdminService {
         Map<String, Object> systemInfo = new HashMap<>();
         
         systemInfo.put("serverTime", LocalDateTime.now());
-        systemInfo.put("totalUsers", userRepository.count());
-        systemInfo.put("totalProperties", propertyRepository.count());
-        systemInfo.put("totalInquiries", inquiryRepository.count());
+        systemInfo.put("totalUsers", dashboardCounters.totalUsers());
+        systemInfo.put("totalProperties", dashboardCounters.totalProperties());
+        systemInfo.put("totalInquiries", dashboardCounters.totalInquiries());
         systemInfo.put("version", "1.0.0");
         
         return systemInfo;
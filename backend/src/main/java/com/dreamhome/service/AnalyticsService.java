@@ -0,0 +1,187 @@
+package com.dreamhome.service;
+
+import com.dreamhome.dto.TimeSeriesDto;
+import com.dreamhome.entity.AnalyticsBucket;
+import com.dreamhome.entity.AnalyticsGranularity;
+import com.dreamhome.entity.AnalyticsMetric;
+import com.dreamhome.entity.AnalyticsWatermark;
+import com.dreamhome.repository.AnalyticsBucketRepository;
+import com.dreamhome.repository.AnalyticsWatermarkRepository;
+import com.dreamhome.repository.InquiryRepository;
+import com.dreamhome.repository.PropertyRepository;
+import com.dreamhome.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hourly and daily counts of new listings, inquiries and user signups.
+ *
+ * <p>{@link #rollUp()} runs every {@code analytics.rollup.interval}. Per
+ * metric it locks the watermark row, counts the rows created between the
+ * watermark and {@code now - analytics.rollup.lag} with one grouped query,
+ * adds them to the buckets and moves the watermark, all in one transaction,
+ * so every row is counted exactly once. The lag lets transactions that
+ * stamped createdAt before the cutoff commit before their window is read.
+ * Time series are then served from the buckets alone.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Points per response, and bucket starts per IN list when merging counts
+    private static final int MAX_POINTS = 5000;
+    private static final int LOOKUP_CHUNK = 500;
+
+    @Autowired
+    private AnalyticsBucketRepository bucketRepository;
+
+    @Autowired
+    private AnalyticsWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private InquiryRepository inquiryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.rollup.lag:PT1M}")
+    private Duration lag;
+
+    @Scheduled(initialDelayString = "${analytics.rollup.interval:PT1M}",
+            fixedDelayString = "${analytics.rollup.interval:PT1M}")
+    public void rollUp() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(lag);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (AnalyticsMetric metric : AnalyticsMetric.values()) {
+            try {
+                transaction.executeWithoutResult(status -> rollUp(metric, cutoff));
+            } catch (RuntimeException e) {
+                // The watermark did not move; the same window is retried next run
+                System.out.println("Analytics rollup of " + metric + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rollUp(AnalyticsMetric metric, LocalDateTime cutoff) {
+        AnalyticsWatermark watermark = watermarkRepository.findForUpdate(metric)
+                .orElseGet(() -> watermarkRepository.saveAndFlush(new AnalyticsWatermark(metric, BEGINNING)));
+        LocalDateTime from = watermark.getProcessedUntil();
+        if (!from.isBefore(cutoff)) {
+            return;
+        }
+
+        Map<LocalDateTime, Long> hours = new TreeMap<>();
+        for (Object[] row : countCreatedPerHour(metric, from, cutoff)) {
+            LocalDateTime hour = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            hours.put(hour, ((Number) row[4]).longValue());
+        }
+        Map<LocalDateTime, Long> days = new TreeMap<>();
+        hours.forEach((hour, count) -> days.merge(AnalyticsGranularity.DAY.bucketStart(hour), count, Long::sum));
+
+        addToBuckets(metric, AnalyticsGranularity.HOUR, hours);
+        addToBuckets(metric, AnalyticsGranularity.DAY, days);
+        watermark.setProcessedUntil(cutoff);
+    }
+
+    private List<Object[]> countCreatedPerHour(AnalyticsMetric metric, LocalDateTime from, LocalDateTime to) {
+        return switch (metric) {
+            case LISTINGS -> propertyRepository.countCreatedPerHour(from, to);
+            case INQUIRIES -> inquiryRepository.countCreatedPerHour(from, to);
+            case SIGNUPS -> userRepository.countCreatedPerHour(from, to);
+        };
+    }
+
+    // Windows never overlap, so counts are added to whatever the bucket already holds
+    private void addToBuckets(AnalyticsMetric metric, AnalyticsGranularity granularity, Map<LocalDateTime, Long> counts) {
+        List<LocalDateTime> starts = new ArrayList<>(counts.keySet());
+        for (int i = 0; i < starts.size(); i += LOOKUP_CHUNK) {
+            List<LocalDateTime> chunk = starts.subList(i, Math.min(starts.size(), i + LOOKUP_CHUNK));
+            Map<LocalDateTime, AnalyticsBucket> buckets = new HashMap<>();
+            for (AnalyticsBucket bucket : bucketRepository.findByMetricAndGranularityAndBucketStartIn(metric, granularity, chunk)) {
+                buckets.put(bucket.getBucketStart(), bucket);
+            }
+            List<AnalyticsBucket> changed = new ArrayList<>(chunk.size());
+            for (LocalDateTime start : chunk) {
+                AnalyticsBucket bucket = buckets.computeIfAbsent(start, s -> new AnalyticsBucket(metric, granularity, s));
+                bucket.setCount(bucket.getCount() + counts.get(start));
+                changed.add(bucket);
+            }
+            bucketRepository.saveAll(changed);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TimeSeriesDto getTimeSeries(String metricName, String granularityName, String fromValue, String toValue) {
+        AnalyticsMetric metric = parse(AnalyticsMetric.class, "metric", metricName);
+        AnalyticsGranularity granularity = granularityName == null
+                ? AnalyticsGranularity.DAY : parse(AnalyticsGranularity.class, "granularity", granularityName);
+
+        LocalDateTime to = toValue == null ? LocalDateTime.now() : parseTime("to", toValue);
+        LocalDateTime from = fromValue != null ? parseTime("from", fromValue)
+                : granularity == AnalyticsGranularity.HOUR ? to.minusHours(48) : to.minusDays(30);
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+
+        LocalDateTime first = granularity.bucketStart(from);
+        Map<LocalDateTime, Long> counts = new HashMap<>();
+        for (AnalyticsBucket bucket : bucketRepository
+                .findByMetricAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                        metric, granularity, first, to)) {
+            counts.put(bucket.getBucketStart(), bucket.getCount());
+        }
+
+        TimeSeriesDto series = new TimeSeriesDto(metric, granularity, from, to);
+        for (LocalDateTime start = first; start.isBefore(to); start = granularity.next(start)) {
+            if (series.getPoints().size() == MAX_POINTS) {
+                throw new RuntimeException("Range too large: at most " + MAX_POINTS + " " +
+                        granularity.name().toLowerCase(Locale.ROOT) + " buckets per request");
+            }
+            series.getPoints().add(new TimeSeriesDto.Point(start, counts.getOrDefault(start, 0L)));
+        }
+        watermarkRepository.findById(metric)
+                .ifPresent(watermark -> series.setProcessedUntil(watermark.getProcessedUntil()));
+        return series;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String parameter, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown " + parameter + ": " + value);
+        }
+    }
+
+    // ISO date-time, or a date meaning its midnight
+    private static LocalDateTime parseTime(String parameter, String value) {
+        try {
+            return value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid '" + parameter + "': " + value + " (expected yyyy-MM-dd or yyyy-MM-ddTHH:mm)");
+        }
+    }
+}
@@ -1,20 +1,36 @@
 package com.dreamhome.service;
 
 import com.dreamhome.dto.*;
+import com.dreamhome.entity.RefreshToken;
+import com.dreamhome.entity.RevokedToken;
 import com.dreamhome.entity.Role;
 import com.dreamhome.entity.User;
+import com.dreamhome.exception.InvalidRefreshTokenException;
+import com.dreamhome.exception.RefreshTokenRotatedException;
+import com.dreamhome.repository.RefreshTokenRepository;
+import com.dreamhome.repository.RevokedTokenRepository;
 import com.dreamhome.repository.UserRepository;
 import com.dreamhome.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -31,6 +47,23 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.expiration}")
+    private Long accessTokenLifetimeMillis;
+
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshTokenLifetimeMillis;
+
+    @Value("${jwt.refresh-reuse-grace:PT5S}")
+    private Duration refreshReuseGrace;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
     public AuthResponse login(LoginRequest loginRequest) {
         System.out.println("Login attempt for username: " + loginRequest.getUsername());
 
@@ -41,20 +74,13 @@ public class AuthService {
                             loginRequest.getPassword()));
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            User user = userRepository.findByUsername(userDetails.getUsername())
+            User user = userRepository.findByNaturalId(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             System.out.println("Login successful for user: " + user.getUsername() + " with role: " + user.getRole());
 
-            Map<String, Object> extraClaims = new HashMap<>();
-            extraClaims.put("role", user.getRole().name());
-            extraClaims.put("userId", user.getId());
-
-            String token = jwtUtil.generateToken(userDetails, extraClaims);
-
-            UserDto userDto = convertToUserDto(user);
-
-            return new AuthResponse(token, userDto);
+            // Each login starts a new family of refresh tokens
+            return issueTokens(user, UUID.randomUUID().toString());
         } catch (Exception e) {
             System.err.println("Login failed for username: " + loginRequest.getUsername() + " - " + e.getMessage());
             throw e;
@@ -85,15 +111,112 @@ public class AuthService {
 
         User savedUser = userRepository.save(user);
 
+        return issueTokens(savedUser, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh
+     * token; the one presented is spent. A spent token presented again has
+     * been copied, so every token of its family is revoked, together with
+     * the access tokens issued with them that are still live.
+     *
+     * <p>The exception is a token spent within {@code jwt.refresh-reuse-grace}
+     * whose successor is still live: two tabs of one browser share the token
+     * and refresh at the same moment. The later one gets 409 and picks up
+     * the pair the first one stored, and the family survives.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken current = refreshTokenRepository
+                .findByTokenHashForUpdate(JwtUtil.sha256Hex(refreshTokenRequest.getRefreshToken()))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        if (current.getRevokedAt() != null) {
+            if (current.getRevokedAt().isAfter(now.minus(refreshReuseGrace))
+                    && refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNull(current.getFamilyId())) {
+                throw new RefreshTokenRotatedException("Refresh token was just exchanged by another request");
+            }
+            System.err.println("Spent refresh token presented again, revoking family " + current.getFamilyId());
+            revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        User user = current.getUser();
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Account is disabled");
+        }
+
+        current.setRevokedAt(now);
+        return issueTokens(user, current.getFamilyId());
+    }
+
+    /** Ends the session the refresh token belongs to, including its current access token. */
+    @Transactional
+    public void logout(RefreshTokenRequest refreshTokenRequest) {
+        refreshTokenRepository.findByTokenHashForUpdate(JwtUtil.sha256Hex(refreshTokenRequest.getRefreshToken()))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Ends every session of a user about to be deleted: their live access
+     * tokens are revoked and their refresh tokens, which reference the user
+     * row, are removed.
+     */
+    @Transactional
+    public void endAllSessions(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String familyId : refreshTokenRepository.findFamilyIdsByUserId(userId)) {
+            revokeFamily(familyId, now);
+        }
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    // Expired refresh tokens, and revocations of access tokens that have expired, are no longer needed
+    @Scheduled(fixedDelayString = "${jwt.token-cleanup:PT1H}")
+    @Transactional
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshTokens = refreshTokenRepository.deleteExpired(now);
+        int revokedTokens = revokedTokenRepository.deleteExpired(now);
+        if (refreshTokens > 0 || revokedTokens > 0) {
+            System.out.println("Purged " + refreshTokens + " expired refresh tokens and "
+                    + revokedTokens + " expired revocations");
+        }
+    }
+
+    private AuthResponse issueTokens(User user, String familyId) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("role", savedUser.getRole().name());
-        extraClaims.put("userId", savedUser.getId());
+        extraClaims.put("role", user.getRole().name());
+        extraClaims.put("userId", user.getId());
+
+        String accessTokenId = UUID.randomUUID().toString();
+        String token = jwtUtil.generateToken(user, extraClaims, accessTokenId);
 
-        String token = jwtUtil.generateToken(savedUser, extraClaims);
+        // Only the hash is stored; the token itself is 256 random bits
+        byte[] secret = new byte[32];
+        secureRandom.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(new RefreshToken(user, JwtUtil.sha256Hex(refreshToken), familyId, accessTokenId,
+                LocalDateTime.now().plus(Duration.ofMillis(refreshTokenLifetimeMillis))));
 
-        UserDto userDto = convertToUserDto(savedUser);
+        UserDto userDto = convertToUserDto(user);
 
-        return new AuthResponse(token, userDto);
+        return new AuthResponse(token, accessTokenLifetimeMillis / 1000, refreshToken, userDto);
+    }
+
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        // Access tokens issued with the family within one lifetime may still be in use
+        Duration accessTokenLifetime = Duration.ofMillis(accessTokenLifetimeMillis);
+        List<RevokedToken> revoked = new ArrayList<>();
+        for (Object[] row : refreshTokenRepository.findAccessTokensIssuedAfter(familyId, now.minus(accessTokenLifetime))) {
+            revoked.add(new RevokedToken((String) row[0], ((LocalDateTime) row[1]).plus(accessTokenLifetime), now));
+        }
+        revokedTokenRepository.saveAll(revoked);
     }
 
     private UserDto convertToUserDto(User user) {
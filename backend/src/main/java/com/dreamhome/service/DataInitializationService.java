@@ -108,6 +108,8 @@ public class DataInitializationService implements CommandLineRunner {
             property1.setBathrooms(3);
             property1.setSquareFeet(2500);
             property1.setLotSize(0.5);
+            property1.setLatitude(39.7990);
+            property1.setLongitude(-89.6440);
             property1.setYearBuilt(2015);
             property1.setIsFeatured(true);
             property1.setImageUrls(Arrays.asList(
@@ -128,6 +130,8 @@ public class DataInitializationService implements CommandLineRunner {
             property2.setBedrooms(2);
             property2.setBathrooms(2);
             property2.setSquareFeet(1200);
+            property2.setLatitude(39.8017);
+            property2.setLongitude(-89.6437);
             property2.setYearBuilt(2020);
             property2.setIsFeatured(true);
             property2.setImageUrls(Arrays.asList(
@@ -148,6 +152,8 @@ public class DataInitializationService implements CommandLineRunner {
             property3.setBedrooms(3);
             property3.setBathrooms(2);
             property3.setSquareFeet(1800);
+            property3.setLatitude(39.7612);
+            property3.setLongitude(-89.6711);
             property3.setYearBuilt(2010);
             property3.setIsFeatured(false);
             property3.setImageUrls(Arrays.asList(
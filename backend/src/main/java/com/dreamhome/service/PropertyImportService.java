@@ -0,0 +1,190 @@
+package com.dreamhome.service;
+
+import com.dreamhome.cache.PropertyQueryCache;
+import com.dreamhome.dto.ImportReport;
+import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.search.PropertyIndexManager;
+import com.dreamhome.util.PropertyFileFormat;
+import com.dreamhome.util.PropertyImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk listing import. The file is parsed as it is read, each row is
+ * validated like a created listing, and valid rows are inserted in chunks,
+ * one transaction per chunk, so memory stays flat and a failure only loses
+ * its own chunk. Inserts go out as JDBC batches (hibernate.jdbc.batch_size).
+ *
+ * <p>Durations and row counts are published as the {@code property.import}
+ * timer and the {@code property.import.rows} counter tagged by outcome.
+ */
+@Service
+public class PropertyImportService {
+
+    // Rows per transaction; the persistence context is flushed and cleared after each
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private PropertyIndexManager propertyIndexManager;
+
+    @Autowired
+    private PropertyQueryCache propertyQueryCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportReport importProperties(PropertyFileFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        PropertyImportReader reader = new PropertyImportReader(format, in, objectMapper);
+
+        List<PropertyImportReader.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        PropertyImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            String error = row.isValid() ? validate(toProperty(row.getProperty())) : row.getError();
+            if (error != null) {
+                report.addError(row.getNumber(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, report);
+            }
+        }
+        importChunk(chunk, report);
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setRowsPerSecond(report.getImported() * 1_000_000_000.0 / Math.max(1, elapsedNanos));
+        meterRegistry.timer("property.import").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("property.import.rows", "outcome", "imported").increment(report.getImported());
+        meterRegistry.counter("property.import.rows", "outcome", "failed").increment(report.getFailed());
+        System.out.println("Property import: " + report.getImported() + " imported, " + report.getFailed()
+                + " failed in " + report.getElapsedMillis() + " ms ("
+                + Math.round(report.getRowsPerSecond()) + " rows/s)");
+        return report;
+    }
+
+    private void importChunk(List<PropertyImportReader.Row> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            listingsImported(insert(chunk), report);
+        } catch (RuntimeException e) {
+            // A database error rejects the whole chunk; retry row by row to isolate it
+            List<Property> saved = new ArrayList<>(chunk.size());
+            for (PropertyImportReader.Row row : chunk) {
+                try {
+                    saved.addAll(insert(List.of(row)));
+                } catch (RuntimeException rowError) {
+                    report.addError(row.getNumber(), "Could not be saved: " + rootMessage(rowError));
+                }
+            }
+            listingsImported(saved, report);
+        }
+        chunk.clear();
+    }
+
+    // Entities are rebuilt from the rows on every attempt; a rolled-back insert leaves ids behind
+    private List<Property> insert(List<PropertyImportReader.Row> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            List<Property> properties = new ArrayList<>(rows.size());
+            for (PropertyImportReader.Row row : rows) {
+                Property property = toProperty(row.getProperty());
+                entityManager.persist(property);
+                properties.add(property);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return properties;
+        });
+    }
+
+    private void listingsImported(List<Property> properties, ImportReport report) {
+        // One index update per chunk; the attribute store copies its columns once, not once per row
+        propertyIndexManager.upsertAll(properties);
+        propertyQueryCache.invalidateAll();
+        report.setImported(report.getImported() + properties.size());
+    }
+
+    private Property toProperty(PropertyDto dto) {
+        Property property = PropertyService.convertToEntity(dto);
+        if (property.getStatus() == null) {
+            property.setStatus(PropertyStatus.AVAILABLE);
+        }
+        if (property.getBedrooms() == null) {
+            property.setBedrooms(0);
+        }
+        if (property.getBathrooms() == null) {
+            property.setBathrooms(0);
+        }
+        if (property.getImageUrls() == null) {
+            property.setImageUrls(new ArrayList<>());
+        }
+        if (property.getFeatures() == null) {
+            property.setFeatures(new ArrayList<>());
+        }
+        if (property.getIsFeatured() == null) {
+            property.setIsFeatured(false);
+        }
+        return property;
+    }
+
+    private String validate(Property property) {
+        if (property.getType() == null) {
+            return "type: Type is required";
+        }
+        Set<ConstraintViolation<Property>> violations = validator.validate(property);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
@@ -1,34 +1,146 @@
 package com.dreamhome.service;
 
+import com.dreamhome.cache.ListingQuery;
+import com.dreamhome.cache.ListingState;
+import com.dreamhome.cache.PropertyQueryCache;
+import com.dreamhome.dto.CursorPage;
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.dto.PropertyClusterDto;
 import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.dto.PropertyFacetsResponse;
+import com.dreamhome.dto.SuggestionDto;
 import com.dreamhome.entity.Property;
 import com.dreamhome.entity.PropertyStatus;
 import com.dreamhome.entity.PropertyType;
 import com.dreamhome.repository.PropertyRepository;
+import com.dreamhome.repository.PropertySpecifications;
+import com.dreamhome.search.FacetCounts;
+import com.dreamhome.search.PropertyAttributeStore;
+import com.dreamhome.search.PropertyClusterIndex;
+import com.dreamhome.search.PropertyFilter;
+import com.dreamhome.search.PropertyFuzzyIndex;
+import com.dreamhome.search.PropertyGeoIndex;
+import com.dreamhome.search.PropertyIndexManager;
+import com.dreamhome.search.PropertySearchIndex;
+import com.dreamhome.search.PropertySuggestIndex;
+import com.dreamhome.search.SearchHits;
+import com.dreamhome.util.PropertyCursor;
+import com.dreamhome.util.PropertyExportWriter;
+import com.dreamhome.util.PropertyFileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PropertyService {
     
+    // Rows converted per persistence-context cycle; also the element-collection batch window
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    
     @Autowired
     private PropertyRepository propertyRepository;
     
+    @Autowired
+    private PropertyIndexManager propertyIndexManager;
+    
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+    
+    @Autowired
+    private PropertyFuzzyIndex propertyFuzzyIndex;
+    
+    @Autowired
+    private PropertyAttributeStore propertyAttributeStore;
+    
+    @Autowired
+    private PropertyGeoIndex propertyGeoIndex;
+    
+    @Autowired
+    private PropertyClusterIndex propertyClusterIndex;
+    
+    @Autowired
+    private PropertySuggestIndex propertySuggestIndex;
+    
+    @Autowired
+    private PropertyQueryCache propertyQueryCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     public List<PropertyDto> getAllProperties() {
         return propertyRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Streams every listing to {@code out} without holding the catalogue in
+     * memory. Rows are scrolled forward-only and converted a chunk at a time,
+     * so image/feature collections still batch-load, then the persistence
+     * context is cleared. Exported rows bypass the second-level cache.
+     */
+    @Transactional(readOnly = true)
+    public void exportProperties(PropertyFileFormat format, OutputStream out) throws IOException {
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        PropertyExportWriter writer = new PropertyExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        
+        List<Property> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Property> properties = propertyRepository.streamAllForExport()) {
+            Iterator<Property> iterator = properties.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    writeChunk(writer, chunk);
+                }
+            }
+        }
+        writeChunk(writer, chunk);
+    }
+    
+    private void writeChunk(PropertyExportWriter writer, List<Property> chunk) throws IOException {
+        for (Property property : chunk) {
+            writer.write(convertToDto(property));
+        }
+        writer.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
+    
     public Page<PropertyDto> getAvailableProperties(int page, int size, String sortBy, String sortDir) {
+        return propertyQueryCache.getPage(ListingQuery.available(page, size, sortBy, sortDir),
+            () -> loadAvailableProperties(page, size, sortBy, sortDir));
+    }
+    
+    private Page<PropertyDto> loadAvailableProperties(int page, int size, String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         
@@ -38,6 +150,23 @@ public class PropertyService {
         return properties.map(this::convertToDto);
     }
     
+    public Page<PropertyCardDto> getAvailablePropertyCards(int page, int size, String sortBy, String sortDir) {
+        return propertyQueryCache.getCardPage(ListingQuery.available(page, size, sortBy, sortDir), () -> {
+            Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+            
+            Page<PropertyCardDto> cards = propertyRepository.findCardsByStatus(
+                PropertyStatus.AVAILABLE, PageRequest.of(page, size, sort));
+            attachFirstImages(cards.getContent());
+            return cards;
+        });
+    }
+    
+    public CursorPage<PropertyDto> getAvailablePropertiesByCursor(String cursor, int size, String sortBy, String sortDir) {
+        return scrollProperties(PropertySpecifications.hasStatus(PropertyStatus.AVAILABLE),
+                cursor, size, sortBy, sortDir);
+    }
+    
     public PropertyDto getPropertyById(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
@@ -45,20 +174,71 @@ public class PropertyService {
     }
     
     public List<PropertyDto> getFeaturedProperties() {
-        return propertyRepository.findByIsFeaturedTrue().stream()
+        return propertyQueryCache.getList(ListingQuery.featured(), () ->
+            propertyRepository.findByIsFeaturedTrue().stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
-    public Page<PropertyDto> searchProperties(String keyword, int page, int size) {
+    public List<PropertyCardDto> getFeaturedPropertyCards() {
+        return propertyQueryCache.getCardList(ListingQuery.featured(), () -> {
+            List<PropertyCardDto> cards = propertyRepository.findFeaturedCards();
+            attachFirstImages(cards);
+            return cards;
+        });
+    }
+    
+    // fuzzy=true always tolerates typos; otherwise corrections are only tried when nothing matches as typed
+    public Page<PropertyDto> searchProperties(String keyword, boolean fuzzy, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Property> properties = propertyRepository.searchProperties(keyword, pageable);
-        return properties.map(this::convertToDto);
+        if (!propertyIndexManager.isReady()) {
+            Page<Property> properties = propertyRepository.searchProperties(keyword, pageable);
+            return properties.map(this::convertToDto);
+        }
+        
+        SearchHits hits = searchIndex(keyword, fuzzy, (int) pageable.getOffset(), size);
+        return new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+    }
+    
+    public Page<PropertyCardDto> searchPropertyCards(String keyword, boolean fuzzy, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        if (!propertyIndexManager.isReady()) {
+            Page<PropertyCardDto> cards = propertyRepository.searchCards(keyword, pageable);
+            attachFirstImages(cards.getContent());
+            return cards;
+        }
+        
+        SearchHits hits = searchIndex(keyword, fuzzy, (int) pageable.getOffset(), size);
+        return new PageImpl<>(findCardsInOrder(hits.getIds()), pageable, hits.getTotal());
+    }
+    
+    private SearchHits searchIndex(String keyword, boolean fuzzy, int offset, int size) {
+        SearchHits hits = fuzzy ? null : propertySearchIndex.search(keyword, offset, size);
+        if (hits == null || hits.getTotal() == 0) {
+            hits = propertySearchIndex.search(propertyFuzzyIndex.expand(keyword), offset, size);
+        }
+        return hits;
     }
     
     public Page<PropertyDto> filterProperties(
             BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
             Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, String featureMatch,
+            int page, int size, String sortBy, String sortDir) {
+        
+        List<String> requestedFeatures = normalizeFeatures(features);
+        boolean matchAllFeatures = matchAllFeatures(featureMatch);
+        ListingQuery query = ListingQuery.filter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city,
+            requestedFeatures, matchAllFeatures, page, size, sortBy, sortDir);
+        return propertyQueryCache.getPage(query, () -> loadFilteredProperties(
+            minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, requestedFeatures, matchAllFeatures,
+            page, size, sortBy, sortDir));
+    }
+    
+    private Page<PropertyDto> loadFilteredProperties(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, boolean matchAllFeatures,
             int page, int size, String sortBy, String sortDir) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -66,6 +246,20 @@ public class PropertyService {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
+        if (propertyIndexManager.isReady() && propertyAttributeStore.supportsSort(sortBy)) {
+            SearchHits hits = propertyAttributeStore.filter(
+                new PropertyFilter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, matchAllFeatures),
+                (int) pageable.getOffset(), size, sortBy, sortDir.equalsIgnoreCase("desc"));
+            return new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+        }
+        
+        if (!features.isEmpty()) {
+            Specification<Property> spec = PropertySpecifications.hasStatus(PropertyStatus.AVAILABLE)
+                    .and(PropertySpecifications.matchesFilters(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city))
+                    .and(PropertySpecifications.hasFeatures(features, matchAllFeatures));
+            return propertyRepository.findAll(spec, pageable).map(this::convertToDto);
+        }
+        
         Page<Property> properties = propertyRepository.findPropertiesWithFilters(
             PropertyStatus.AVAILABLE, minPrice, maxPrice, type,
             minBedrooms, maxBedrooms, city, pageable
@@ -74,37 +268,318 @@ public class PropertyService {
         return properties.map(this::convertToDto);
     }
     
+    public Page<PropertyCardDto> filterPropertyCards(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, String featureMatch,
+            int page, int size, String sortBy, String sortDir) {
+        
+        List<String> requestedFeatures = normalizeFeatures(features);
+        boolean matchAllFeatures = matchAllFeatures(featureMatch);
+        ListingQuery query = ListingQuery.filter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city,
+            requestedFeatures, matchAllFeatures, page, size, sortBy, sortDir);
+        return propertyQueryCache.getCardPage(query, () -> loadFilteredPropertyCards(
+            minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, requestedFeatures, matchAllFeatures,
+            page, size, sortBy, sortDir));
+    }
+    
+    private Page<PropertyCardDto> loadFilteredPropertyCards(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, boolean matchAllFeatures,
+            int page, int size, String sortBy, String sortDir) {
+        
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        
+        Pageable pageable = PageRequest.of(page, size, sort);
+        
+        if (propertyIndexManager.isReady() && propertyAttributeStore.supportsSort(sortBy)) {
+            SearchHits hits = propertyAttributeStore.filter(
+                new PropertyFilter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features, matchAllFeatures),
+                (int) pageable.getOffset(), size, sortBy, sortDir.equalsIgnoreCase("desc"));
+            return new PageImpl<>(findCardsInOrder(hits.getIds()), pageable, hits.getTotal());
+        }
+        
+        if (!features.isEmpty()) {
+            Specification<Property> spec = PropertySpecifications.hasStatus(PropertyStatus.AVAILABLE)
+                    .and(PropertySpecifications.matchesFilters(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city))
+                    .and(PropertySpecifications.hasFeatures(features, matchAllFeatures));
+            return propertyRepository.findAll(spec, pageable).map(this::convertToCard);
+        }
+        
+        Page<PropertyCardDto> cards = propertyRepository.findCardsWithFilters(
+            PropertyStatus.AVAILABLE, minPrice, maxPrice, type,
+            minBedrooms, maxBedrooms, city, pageable
+        );
+        attachFirstImages(cards.getContent());
+        return cards;
+    }
+    
+    public PropertyFacetsResponse getPropertyFacets(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, String featureMatch,
+            int page, int size, String sortBy, String sortDir) {
+        // Until the attribute store is loaded every count would be zero next to a non-empty page
+        requireIndexes();
+
+        List<String> requestedFeatures = normalizeFeatures(features);
+        Page<PropertyDto> properties = filterProperties(
+            minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, requestedFeatures, featureMatch, page, size, sortBy, sortDir);
+        FacetCounts facets = propertyAttributeStore.facets(new PropertyFilter(
+            minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, requestedFeatures, matchAllFeatures(featureMatch)));
+        
+        return new PropertyFacetsResponse(properties, facets.getTypes(), facets.getBedrooms(),
+            facets.getPrices(), facets.getCities());
+    }
+    
+    // Trimmed, lower-cased and without blanks or repeats, so the cache key, the feature
+    // index and the SQL fallback all see the same tags; an empty list means no filter
+    private List<String> normalizeFeatures(List<String> features) {
+        if (features == null) {
+            return List.of();
+        }
+        return features.stream()
+            .filter(Objects::nonNull)
+            .map(feature -> feature.trim().toLowerCase(Locale.ROOT))
+            .filter(feature -> !feature.isEmpty())
+            .distinct()
+            .collect(Collectors.toList());
+    }
+    
+    // featureMatch=all requires every listed feature, featureMatch=any at least one
+    private boolean matchAllFeatures(String featureMatch) {
+        if (featureMatch.equalsIgnoreCase("all")) {
+            return true;
+        }
+        if (featureMatch.equalsIgnoreCase("any")) {
+            return false;
+        }
+        throw new RuntimeException("featureMatch must be 'all' or 'any'");
+    }
+    
+    public Page<PropertyDto> findPropertiesNear(
+            double lat, double lng, double radiusKm,
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, int page, int size) {
+        
+        validateCoordinates(lat, lng);
+        if (radiusKm <= 0 || radiusKm > PropertyGeoIndex.MAX_RADIUS_KM) {
+            throw new RuntimeException("Radius must be between 0 and " + PropertyGeoIndex.MAX_RADIUS_KM + " km");
+        }
+        requireIndexes();
+        
+        Pageable pageable = PageRequest.of(page, size);
+        SearchHits hits = propertyGeoIndex.near(lat, lng, radiusKm,
+            propertyAttributeStore.matcher(new PropertyFilter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, null)),
+            (int) pageable.getOffset(), size);
+        return new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+    }
+    
+    public Page<PropertyDto> findPropertiesWithin(
+            double minLat, double minLng, double maxLat, double maxLng,
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, int page, int size) {
+        
+        validateCoordinates(minLat, minLng);
+        validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat) {
+            throw new RuntimeException("minLat must not be greater than maxLat");
+        }
+        double width = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        if (maxLat - minLat > PropertyGeoIndex.MAX_BOX_DEGREES || width > PropertyGeoIndex.MAX_BOX_DEGREES) {
+            throw new RuntimeException("Bounding box must span at most " + PropertyGeoIndex.MAX_BOX_DEGREES + " degrees each way");
+        }
+        requireIndexes();
+        
+        Pageable pageable = PageRequest.of(page, size);
+        SearchHits hits = propertyGeoIndex.within(minLat, minLng, maxLat, maxLng,
+            propertyAttributeStore.matcher(new PropertyFilter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, null)),
+            (int) pageable.getOffset(), size);
+        return new PageImpl<>(findDtosInOrder(hits.getIds()), pageable, hits.getTotal());
+    }
+    
+    // bbox is minLng,minLat,maxLng,maxLat (GeoJSON order); minLng > maxLng crosses the antimeridian
+    public List<PropertyClusterDto> getPropertyClusters(String bbox, int zoom) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new RuntimeException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        double minLng;
+        double minLat;
+        double maxLng;
+        double maxLat;
+        try {
+            minLng = Double.parseDouble(parts[0].trim());
+            minLat = Double.parseDouble(parts[1].trim());
+            maxLng = Double.parseDouble(parts[2].trim());
+            maxLat = Double.parseDouble(parts[3].trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        validateCoordinates(minLat, minLng);
+        validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat) {
+            throw new RuntimeException("minLat must not be greater than maxLat");
+        }
+        double width = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        if (maxLat - minLat > PropertyGeoIndex.MAX_BOX_DEGREES || width > PropertyGeoIndex.MAX_BOX_DEGREES) {
+            throw new RuntimeException("Bounding box must span at most " + PropertyGeoIndex.MAX_BOX_DEGREES + " degrees each way");
+        }
+        requireIndexes();
+        
+        return propertyClusterIndex.clusters(minLat, minLng, maxLat, maxLng, zoom);
+    }
+    
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > PropertySuggestIndex.MAX_SUGGESTIONS) {
+            throw new RuntimeException("Limit must be between 1 and " + PropertySuggestIndex.MAX_SUGGESTIONS);
+        }
+        requireIndexes();
+        
+        return propertySuggestIndex.suggest(prefix, limit);
+    }
+    
+    private void validateCoordinates(double lat, double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new RuntimeException("Invalid coordinates: " + lat + ", " + lng);
+        }
+    }
+    
+    private void requireIndexes() {
+        if (!propertyIndexManager.isReady()) {
+            throw new RuntimeException("Property indexes are still loading, please retry shortly");
+        }
+    }
+    
+    public CursorPage<PropertyDto> filterPropertiesByCursor(
+            BigDecimal minPrice, BigDecimal maxPrice, PropertyType type,
+            Integer minBedrooms, Integer maxBedrooms, String city,
+            List<String> features, String featureMatch,
+            String cursor, int size, String sortBy, String sortDir) {
+        
+        List<String> requestedFeatures = normalizeFeatures(features);
+        Specification<Property> spec = PropertySpecifications.hasStatus(PropertyStatus.AVAILABLE)
+                .and(PropertySpecifications.matchesFilters(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city));
+        if (!requestedFeatures.isEmpty()) {
+            spec = spec.and(PropertySpecifications.hasFeatures(requestedFeatures, matchAllFeatures(featureMatch)));
+        }
+        return scrollProperties(spec, cursor, size, sortBy, sortDir);
+    }
+    
+    // Keyset pagination: seeks past the cursor's (sortKey, id) and fetches size + 1 rows, no COUNT query
+    private CursorPage<PropertyDto> scrollProperties(
+            Specification<Property> spec, String cursor, int size, String sortBy, String sortDir) {
+        
+        Sort sort = PropertyCursor.sort(sortBy, sortDir);
+        Window<Property> window = propertyRepository.findBy(spec, query -> query
+                .sortBy(sort)
+                .limit(size)
+                .scroll(PropertyCursor.decode(cursor, sortBy, sortDir)));
+        
+        List<PropertyDto> content = window.getContent().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? PropertyCursor.encode(window.positionAt(window.size() - 1), sortBy, sortDir)
+                : null;
+        return new CursorPage<>(content, size, nextCursor, window.hasNext());
+    }
+    
     public PropertyDto createProperty(PropertyDto propertyDto) {
         Property property = convertToEntity(propertyDto);
         property.setStatus(PropertyStatus.AVAILABLE);
         Property savedProperty = propertyRepository.save(property);
+        propertyIndexManager.propertySaved(savedProperty);
+        propertyQueryCache.invalidate(null, ListingState.of(savedProperty));
         return convertToDto(savedProperty);
     }
     
     public PropertyDto updateProperty(Long id, PropertyDto propertyDto) {
         Property existingProperty = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        ListingState before = ListingState.of(existingProperty);
         
         updatePropertyFromDto(existingProperty, propertyDto);
         Property updatedProperty = propertyRepository.save(existingProperty);
+        propertyIndexManager.propertySaved(updatedProperty);
+        propertyQueryCache.invalidate(before, ListingState.of(updatedProperty));
         return convertToDto(updatedProperty);
     }
     
     public void deleteProperty(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        ListingState before = ListingState.of(property);
         propertyRepository.delete(property);
+        propertyIndexManager.propertyDeleted(id);
+        propertyQueryCache.invalidate(before, null);
     }
     
     public PropertyDto updatePropertyStatus(Long id, PropertyStatus status) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Property not found with id: " + id));
+        ListingState before = ListingState.of(property);
         
         property.setStatus(status);
         Property updatedProperty = propertyRepository.save(property);
+        propertyIndexManager.propertySaved(updatedProperty);
+        propertyQueryCache.invalidate(before, ListingState.of(updatedProperty));
         return convertToDto(updatedProperty);
     }
     
+    // Loads the given ids and returns them as DTOs in the same order, skipping rows deleted meanwhile
+    private List<PropertyDto> findDtosInOrder(List<Long> ids) {
+        Map<Long, Property> byId = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
+    // Card-view counterpart of findDtosInOrder: reads only card columns plus one query for images
+    private List<PropertyCardDto> findCardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PropertyCardDto> byId = propertyRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PropertyCardDto::getId, Function.identity()));
+        List<PropertyCardDto> cards = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        attachFirstImages(cards);
+        return cards;
+    }
+    
+    private void attachFirstImages(List<PropertyCardDto> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<Long, PropertyCardDto> byId = cards.stream()
+                .collect(Collectors.toMap(PropertyCardDto::getId, Function.identity()));
+        for (Object[] row : propertyRepository.findImageUrlsByPropertyIds(byId.keySet())) {
+            PropertyCardDto card = byId.get((Long) row[0]);
+            if (card.getImageUrl() == null) {
+                card.setImageUrl((String) row[1]);
+            }
+        }
+    }
+    
+    private PropertyCardDto convertToCard(Property property) {
+        PropertyCardDto card = new PropertyCardDto(property.getId(), property.getTitle(), property.getPrice(),
+            property.getType(), property.getStatus(), property.getCity(), property.getState(),
+            property.getBedrooms(), property.getBathrooms(), property.getSquareFeet(),
+            property.getIsFeatured(), property.getCreatedAt());
+        if (!property.getImageUrls().isEmpty()) {
+            card.setImageUrl(property.getImageUrls().get(0));
+        }
+        return card;
+    }
+    
     private PropertyDto convertToDto(Property property) {
         PropertyDto dto = new PropertyDto();
         dto.setId(property.getId());
@@ -122,21 +597,24 @@ public class PropertyService {
         dto.setSquareFeet(property.getSquareFeet());
         dto.setLotSize(property.getLotSize());
         dto.setYearBuilt(property.getYearBuilt());
-        dto.setImageUrls(property.getImageUrls());
-        dto.setFeatures(property.getFeatures());
+        dto.setLatitude(property.getLatitude());
+        dto.setLongitude(property.getLongitude());
+        // Plain copies: DTOs outlive the session and may be shared through PropertyQueryCache
+        dto.setImageUrls(property.getImageUrls() != null ? new ArrayList<>(property.getImageUrls()) : null);
+        dto.setFeatures(property.getFeatures() != null ? new ArrayList<>(property.getFeatures()) : null);
         dto.setIsFeatured(property.getIsFeatured());
         dto.setCreatedAt(property.getCreatedAt());
         dto.setUpdatedAt(property.getUpdatedAt());
         return dto;
     }
     
-    private Property convertToEntity(PropertyDto dto) {
+    static Property convertToEntity(PropertyDto dto) {
         Property property = new Property();
         updatePropertyFromDto(property, dto);
         return property;
     }
     
-    private void updatePropertyFromDto(Property property, PropertyDto dto) {
+    static void updatePropertyFromDto(Property property, PropertyDto dto) {
         property.setTitle(dto.getTitle());
         property.setDescription(dto.getDescription());
         property.setPrice(dto.getPrice());
@@ -150,6 +628,8 @@ public class PropertyService {
         property.setSquareFeet(dto.getSquareFeet());
         property.setLotSize(dto.getLotSize());
         property.setYearBuilt(dto.getYearBuilt());
+        property.setLatitude(dto.getLatitude());
+        property.setLongitude(dto.getLongitude());
         property.setImageUrls(dto.getImageUrls());
         property.setFeatures(dto.getFeatures());
         property.setIsFeatured(dto.getIsFeatured());
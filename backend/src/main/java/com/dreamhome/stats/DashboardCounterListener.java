@@ -0,0 +1,120 @@
+package com.dreamhome.stats;
+
+import com.dreamhome.entity.Inquiry;
+import com.dreamhome.entity.InquiryStatus;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.Role;
+import com.dreamhome.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Feeds {@link DashboardCounters} from Hibernate's post-commit entity events
+ * for User, Property and Inquiry, so rolled-back changes are never counted.
+ * Updates and deletes carry the previous state, which tells which counter
+ * a changed role or status moves out of.
+ */
+@Component
+public class DashboardCounterListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @Autowired
+    private DashboardCounters counters;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == User.class || type == Property.class || type == Inquiry.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof User user) {
+            counters.userInserted(user);
+        } else if (entity instanceof Property property) {
+            counters.propertyInserted(property);
+        } else if (entity instanceof Inquiry inquiry) {
+            counters.inquiryInserted(inquiry.getStatus());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            counters.markStale();
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object entity = event.getEntity();
+        if (entity instanceof User user) {
+            counters.userUpdated((Role) value(persister, oldState, "role"),
+                    (Boolean) value(persister, oldState, "isActive"), user);
+        } else if (entity instanceof Property property) {
+            counters.propertyUpdated((PropertyStatus) value(persister, oldState, "status"), property);
+        } else if (entity instanceof Inquiry inquiry) {
+            counters.inquiryUpdated((InquiryStatus) value(persister, oldState, "status"), inquiry.getStatus());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object[] state = event.getDeletedState();
+        if (state == null) {
+            counters.markStale();
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Long id = (Long) event.getId();
+        Object entity = event.getEntity();
+        if (entity instanceof User) {
+            counters.userDeleted(id, (Role) value(persister, state, "role"),
+                    (Boolean) value(persister, state, "isActive"));
+        } else if (entity instanceof Property) {
+            counters.propertyDeleted(id, (PropertyStatus) value(persister, state, "status"));
+        } else if (entity instanceof Inquiry) {
+            counters.inquiryDeleted((InquiryStatus) value(persister, state, "status"));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    private static Object value(EntityPersister persister, Object[] state, String property) {
+        return state[Arrays.asList(persister.getPropertyNames()).indexOf(property)];
+    }
+}
@@ -0,0 +1,359 @@
+package com.dreamhome.stats;
+
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.dto.UserDto;
+import com.dreamhome.entity.InquiryStatus;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.Role;
+import com.dreamhome.entity.User;
+import com.dreamhome.repository.InquiryRepository;
+import com.dreamhome.repository.PropertyRepository;
+import com.dreamhome.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory counts behind the admin dashboard and system info: users by
+ * role and active flag, listings by status, inquiries by status, plus the
+ * five newest users and listings. DashboardCounterListener applies every
+ * committed insert, update and delete, so reads cost no queries.
+ *
+ * <p>Changes that bypass the entity lifecycle (bulk JPQL, manual SQL) and
+ * updates without a loaded previous state cause drift. {@link #reconcile()}
+ * corrects it: it runs at startup, every
+ * {@code dashboard.counters.reconcile-interval}, and before the next read
+ * once a change could not be applied exactly. Its queries run concurrently
+ * through {@link ParallelQueries}; one that times out leaves its counters
+ * as they were and is retried before the next read.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final int RECENT_LIMIT = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private InquiryRepository inquiryRepository;
+
+    @Autowired
+    private ParallelQueries parallelQueries;
+
+    private final Map<Role, LongAdder> usersByRole = adders(Role.class);
+    private final LongAdder activeUsers = new LongAdder();
+    private final Map<PropertyStatus, LongAdder> propertiesByStatus = adders(PropertyStatus.class);
+    private final Map<InquiryStatus, LongAdder> inquiriesByStatus = adders(InquiryStatus.class);
+
+    // Newest first; guarded by their own monitors
+    private final LinkedList<UserDto> recentUsers = new LinkedList<>();
+    private final LinkedList<PropertyCardDto> recentProperties = new LinkedList<>();
+
+    private volatile boolean stale = true;
+
+    // Counts
+
+    public long totalUsers() { return sum(usersByRole); }
+
+    public long activeUsers() { return fresh().activeUsers.sum(); }
+
+    public long usersWithRole(Role role) { return fresh().usersByRole.get(role).sum(); }
+
+    public long totalProperties() { return sum(propertiesByStatus); }
+
+    public long propertiesWithStatus(PropertyStatus status) { return fresh().propertiesByStatus.get(status).sum(); }
+
+    public long totalInquiries() { return sum(inquiriesByStatus); }
+
+    public long inquiriesWithStatus(InquiryStatus status) { return fresh().inquiriesByStatus.get(status).sum(); }
+
+    public List<UserDto> recentUsers() {
+        fresh();
+        synchronized (recentUsers) {
+            return new ArrayList<>(recentUsers);
+        }
+    }
+
+    public List<PropertyCardDto> recentProperties() {
+        fresh();
+        synchronized (recentProperties) {
+            return new ArrayList<>(recentProperties);
+        }
+    }
+
+    // Lifecycle events (called after commit)
+
+    void userInserted(User user) {
+        usersByRole.get(user.getRole()).increment();
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            activeUsers.increment();
+        }
+        pushRecent(recentUsers, toUserDto(user), UserDto::getId);
+    }
+
+    void userUpdated(Role oldRole, Boolean oldActive, User user) {
+        move(usersByRole, oldRole, user.getRole());
+        if (!Objects.equals(Boolean.TRUE.equals(oldActive), Boolean.TRUE.equals(user.getIsActive()))) {
+            activeUsers.add(Boolean.TRUE.equals(user.getIsActive()) ? 1 : -1);
+        }
+        replaceRecent(recentUsers, toUserDto(user), UserDto::getId);
+    }
+
+    void userDeleted(Long id, Role role, Boolean active) {
+        usersByRole.get(role).decrement();
+        if (Boolean.TRUE.equals(active)) {
+            activeUsers.decrement();
+        }
+        removeRecent(recentUsers, id, UserDto::getId);
+    }
+
+    void propertyInserted(Property property) {
+        propertiesByStatus.get(property.getStatus()).increment();
+        pushRecent(recentProperties, toCard(property), PropertyCardDto::getId);
+    }
+
+    void propertyUpdated(PropertyStatus oldStatus, Property property) {
+        move(propertiesByStatus, oldStatus, property.getStatus());
+        replaceRecent(recentProperties, toCard(property), PropertyCardDto::getId);
+    }
+
+    void propertyDeleted(Long id, PropertyStatus status) {
+        propertiesByStatus.get(status).decrement();
+        removeRecent(recentProperties, id, PropertyCardDto::getId);
+    }
+
+    void inquiryInserted(InquiryStatus status) {
+        inquiriesByStatus.get(status).increment();
+    }
+
+    void inquiryUpdated(InquiryStatus oldStatus, InquiryStatus newStatus) {
+        move(inquiriesByStatus, oldStatus, newStatus);
+    }
+
+    void inquiryDeleted(InquiryStatus status) {
+        inquiriesByStatus.get(status).decrement();
+    }
+
+    /** A change could not be applied exactly; recount before the next read. */
+    void markStale() {
+        stale = true;
+    }
+
+    // Reconciliation
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-interval:PT5M}",
+            fixedDelayString = "${dashboard.counters.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        stale = false;
+        long drift = 0;
+
+        // Counts as they stand before the queries go out. Each count is applied as the
+        // difference from its snapshot, so changes applied while a query runs are kept
+        Map<Role, Long> rolesBefore = snapshot(usersByRole);
+        long activeBefore = activeUsers.sum();
+        Map<PropertyStatus, Long> propertiesBefore = snapshot(propertiesByStatus);
+        Map<InquiryStatus, Long> inquiriesBefore = snapshot(inquiriesByStatus);
+
+        // The five reads are independent; run them side by side
+        CompletableFuture<List<Object[]>> userCounts =
+                parallelQueries.submit("users-by-role", userRepository::countGroupedByRoleAndActive);
+        CompletableFuture<List<Object[]>> propertyCounts =
+                parallelQueries.submit("properties-by-status", propertyRepository::countGroupedByStatus);
+        CompletableFuture<List<Object[]>> inquiryCounts =
+                parallelQueries.submit("inquiries-by-status", inquiryRepository::countGroupedByStatus);
+        CompletableFuture<List<UserDto>> newestUsers = parallelQueries.submit("recent-users",
+                () -> userRepository.findTop5ByOrderByCreatedAtDesc().stream().map(this::toUserDto).toList());
+        CompletableFuture<List<PropertyCardDto>> newestProperties = parallelQueries.submit("recent-properties",
+                () -> propertyRepository.findRecentCards(PageRequest.of(0, RECENT_LIMIT)));
+
+        // A part that failed or timed out keeps its current values and is retried before the next read
+        boolean complete = true;
+
+        Optional<List<Object[]>> userRows = parallelQueries.await("users-by-role", userCounts);
+        if (userRows.isPresent()) {
+            Map<Role, Long> roles = new EnumMap<>(Role.class);
+            long active = 0;
+            for (Object[] row : userRows.get()) {
+                long count = (Long) row[2];
+                roles.merge((Role) row[0], count, Long::sum);
+                if (Boolean.TRUE.equals(row[1])) {
+                    active += count;
+                }
+            }
+            drift += correct(usersByRole, rolesBefore, roles);
+            drift += correct(activeUsers, activeBefore, active);
+        } else {
+            complete = false;
+        }
+
+        Optional<List<Object[]>> propertyRows = parallelQueries.await("properties-by-status", propertyCounts);
+        if (propertyRows.isPresent()) {
+            drift += correct(propertiesByStatus, propertiesBefore, grouped(propertyRows.get(), PropertyStatus.class));
+        } else {
+            complete = false;
+        }
+
+        Optional<List<Object[]>> inquiryRows = parallelQueries.await("inquiries-by-status", inquiryCounts);
+        if (inquiryRows.isPresent()) {
+            drift += correct(inquiriesByStatus, inquiriesBefore, grouped(inquiryRows.get(), InquiryStatus.class));
+        } else {
+            complete = false;
+        }
+
+        Optional<List<UserDto>> users = parallelQueries.await("recent-users", newestUsers);
+        if (users.isPresent()) {
+            synchronized (recentUsers) {
+                recentUsers.clear();
+                recentUsers.addAll(users.get());
+            }
+        } else {
+            complete = false;
+        }
+
+        Optional<List<PropertyCardDto>> properties = parallelQueries.await("recent-properties", newestProperties);
+        if (properties.isPresent()) {
+            synchronized (recentProperties) {
+                recentProperties.clear();
+                recentProperties.addAll(properties.get());
+            }
+        } else {
+            complete = false;
+        }
+
+        if (!complete) {
+            stale = true;
+        }
+        if (drift != 0) {
+            System.out.println("Dashboard counters reconciled, corrected a total drift of " + drift);
+        }
+    }
+
+    private DashboardCounters fresh() {
+        if (stale) {
+            reconcile();
+        }
+        return this;
+    }
+
+    private <E extends Enum<E>> long sum(Map<E, LongAdder> adders) {
+        fresh();
+        long total = 0;
+        for (LongAdder adder : adders.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> adders = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            adders.put(value, new LongAdder());
+        }
+        return adders;
+    }
+
+    private static <E extends Enum<E>> void move(Map<E, LongAdder> adders, E from, E to) {
+        if (from != to) {
+            adders.get(from).decrement();
+            adders.get(to).increment();
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> grouped(List<Object[]> rows, Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (Object[] row : rows) {
+            counts.put(type.cast(row[0]), (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> snapshot(Map<E, LongAdder> adders) {
+        Map<E, Long> counts = new HashMap<>();
+        for (Map.Entry<E, LongAdder> entry : adders.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    private static <E extends Enum<E>> long correct(Map<E, LongAdder> adders, Map<E, Long> before, Map<E, Long> actual) {
+        long drift = 0;
+        for (Map.Entry<E, LongAdder> entry : adders.entrySet()) {
+            drift += correct(entry.getValue(), before.get(entry.getKey()), actual.getOrDefault(entry.getKey(), 0L));
+        }
+        return drift;
+    }
+
+    // Adds the difference between the count and the snapshot taken before it was queried,
+    // rather than resetting, so changes applied while the query ran survive. A change that
+    // commits after the snapshot but before the query reads is counted twice until the
+    // next reconciliation.
+    private static long correct(LongAdder adder, long before, long actual) {
+        long delta = actual - before;
+        adder.add(delta);
+        return Math.abs(delta);
+    }
+
+    private static <T> void pushRecent(LinkedList<T> recent, T item, Function<T, Long> id) {
+        synchronized (recent) {
+            recent.removeIf(existing -> Objects.equals(id.apply(existing), id.apply(item)));
+            recent.addFirst(item);
+            while (recent.size() > RECENT_LIMIT) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    private static <T> void replaceRecent(LinkedList<T> recent, T item, Function<T, Long> id) {
+        synchronized (recent) {
+            recent.replaceAll(existing -> Objects.equals(id.apply(existing), id.apply(item)) ? item : existing);
+        }
+    }
+
+    // The list refills from the database at the next reconciliation
+    private static <T> void removeRecent(LinkedList<T> recent, Long removedId, Function<T, Long> id) {
+        synchronized (recent) {
+            recent.removeIf(existing -> Objects.equals(id.apply(existing), removedId));
+        }
+    }
+
+    private UserDto toUserDto(User user) {
+        UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
+        userDto.setUsername(user.getUsername());
+        userDto.setEmail(user.getEmail());
+        userDto.setFirstName(user.getFirstName());
+        userDto.setLastName(user.getLastName());
+        userDto.setPhoneNumber(user.getPhoneNumber());
+        userDto.setRole(user.getRole());
+        userDto.setIsActive(user.getIsActive());
+        userDto.setCreatedAt(user.getCreatedAt());
+        return userDto;
+    }
+
+    private PropertyCardDto toCard(Property property) {
+        return new PropertyCardDto(property.getId(), property.getTitle(), property.getPrice(), property.getType(),
+                property.getStatus(), property.getCity(), property.getState(), property.getBedrooms(),
+                property.getBathrooms(), property.getSquareFeet(), property.getIsFeatured(), property.getCreatedAt());
+    }
+}
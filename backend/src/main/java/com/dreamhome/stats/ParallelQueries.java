@@ -0,0 +1,112 @@
+package com.dreamhome.stats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent admin read queries side by side, so a dashboard that
+ * needs several of them waits for the slowest instead of their sum.
+ *
+ * <p>Each query runs on a small pool of its own (admin.queries.threads,
+ * kept well below the connection pool) in a read-only transaction whose
+ * timeout also becomes the JDBC statement timeout, so an abandoned query
+ * does not hold its connection indefinitely. A query that misses
+ * admin.queries.timeout is reported as absent so the caller can return
+ * what it has. Latencies are published as the {@code admin.query} timer,
+ * tagged by query name and outcome.
+ */
+@Component
+public class ParallelQueries {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admin.queries.threads:4}")
+    private int threads;
+
+    @Value("${admin.queries.timeout:PT5S}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), runnable -> {
+                    Thread thread = new Thread(runnable, "admin-query-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Hibernate rounds the time left down to whole seconds; the extra second keeps the
+        // statement timeout a backstop that frees the connection after the caller gave up
+        readOnly.setTimeout((int) timeout.toSeconds() + 1);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Starts the query now; a full queue fails the future instead of blocking the caller. */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> query) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "error";
+                try {
+                    T result = readOnly.execute(status -> query.get());
+                    outcome = "success";
+                    return result;
+                } finally {
+                    sample.stop(meterRegistry.timer("admin.query", "query", name, "outcome", outcome));
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** The query's result, or empty if it failed or timed out. */
+    public <T> Optional<T> await(String name, CompletableFuture<T> future) {
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                meterRegistry.counter("admin.query.timeouts", "query", name).increment();
+                System.out.println("Admin query " + name + " timed out after " + timeout.toMillis() + " ms");
+            } else {
+                System.out.println("Admin query " + name + " failed: " + cause.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.dreamhome.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque cursor for keyset pagination over properties. A cursor carries the
+ * sort field and direction it was issued for plus the last row's
+ * (sortKey, id), so the next slice is a seek rather than an OFFSET scan.
+ */
+public final class PropertyCursor {
+
+    // Only non-null columns can be used as a seek key
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("createdAt", "updatedAt", "price", "bedrooms", "bathrooms", "title", "id");
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "\u0000";
+
+    private PropertyCursor() {}
+
+    /** Sort on the requested field with {@code id} as the stable tie-break. */
+    public static Sort sort(String sortBy, String sortDir) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new RuntimeException("Unsupported sort field for cursor pagination: " + sortBy);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals("id") ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    public static ScrollPosition decode(String cursor, String sortBy, String sortDir) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 5);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (!parts[1].equals(sortBy) || !parts[2].equalsIgnoreCase(sortDir)) {
+            throw new RuntimeException("Cursor was issued for a different sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(sortBy, parseValue(sortBy, parts[4]));
+            keys.put("id", Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static String encode(ScrollPosition position, String sortBy, String sortDir) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = String.join(SEPARATOR,
+                VERSION, sortBy, sortDir.toLowerCase(), String.valueOf(keys.get("id")), String.valueOf(keys.get(sortBy)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        switch (sortBy) {
+            case "createdAt":
+            case "updatedAt":
+                return LocalDateTime.parse(value);
+            case "price":
+                return new BigDecimal(value);
+            case "bedrooms":
+            case "bathrooms":
+                return Integer.valueOf(value);
+            case "id":
+                return Long.valueOf(value);
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.dreamhome.util;
+
+import com.dreamhome.dto.PropertyDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes listings one row at a time to an export stream, as NDJSON (one
+ * PropertyDto JSON object per line) or CSV (list columns joined with "|").
+ * Nothing is kept between rows.
+ */
+public class PropertyExportWriter {
+
+    private static final String CSV_HEADER = String.join(",", PropertyFileFormat.CSV_COLUMNS);
+
+    private final PropertyFileFormat format;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    public PropertyExportWriter(PropertyFileFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == PropertyFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(PropertyDto property) throws IOException {
+        if (format == PropertyFileFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(property));
+        } else {
+            writeCsvRow(property);
+        }
+        writer.write('\n');
+    }
+
+    /** Pushes buffered rows to the client; called once per chunk. */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvRow(PropertyDto p) throws IOException {
+        Object[] cells = {
+                p.getId(), p.getTitle(), p.getDescription(), p.getPrice(), p.getType(), p.getStatus(),
+                p.getAddress(), p.getCity(), p.getState(), p.getZipCode(), p.getBedrooms(), p.getBathrooms(),
+                p.getSquareFeet(), p.getLotSize(), p.getYearBuilt(), p.getLatitude(), p.getLongitude(),
+                p.getIsFeatured(), join(p.getImageUrls()), join(p.getFeatures()), p.getCreatedAt(), p.getUpdatedAt()
+        };
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (cells[i] != null) {
+                writer.write(escape(cells[i].toString()));
+            }
+        }
+    }
+
+    private static String join(List<String> values) {
+        return values == null || values.isEmpty() ? null : String.join(PropertyFileFormat.LIST_SEPARATOR, values);
+    }
+
+    // RFC 4180: quote cells containing a separator, quote or line break, doubling inner quotes
+    private static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
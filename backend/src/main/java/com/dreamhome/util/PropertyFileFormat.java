@@ -0,0 +1,41 @@
+package com.dreamhome.util;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/** File formats accepted by the listing export and bulk import endpoints. */
+public enum PropertyFileFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    /** Column order of exported CSV files; imports match columns by header name. */
+    public static final String[] CSV_COLUMNS = {
+            "id", "title", "description", "price", "type", "status", "address", "city", "state", "zipCode",
+            "bedrooms", "bathrooms", "squareFeet", "lotSize", "yearBuilt", "latitude", "longitude", "isFeatured",
+            "imageUrls", "features", "createdAt", "updatedAt"
+    };
+
+    /** Separator for list columns (imageUrls, features) inside one CSV cell. */
+    public static final String LIST_SEPARATOR = "|";
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    PropertyFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() { return mediaType; }
+
+    public String getExtension() { return extension; }
+
+    public static PropertyFileFormat parse(String format) {
+        try {
+            return PropertyFileFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported file format: " + format + " (use ndjson or csv)");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.dreamhome.util;
+
+import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads listings one record at a time from an import stream in the format
+ * {@link PropertyExportWriter} produces. CSV columns are matched by header
+ * name (id, createdAt and updatedAt are ignored); NDJSON lines are
+ * PropertyDto objects. A record that cannot be parsed is returned as a row
+ * with an error rather than failing the whole file.
+ *
+ * <p>A CSV record may span lines inside quotes, but not beyond
+ * {@value #MAX_RECORD_LENGTH} characters or past the end of the input. Such a
+ * record (usually a stray or unclosed quote) is reported as an error for its
+ * first line, and reading resumes on the line after it.
+ */
+public class PropertyImportReader {
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("title", "description", "price", "type", "address", "city", "state", "zipCode");
+
+    static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private static final Pattern LIST_SPLIT = Pattern.compile(Pattern.quote(PropertyFileFormat.LIST_SEPARATOR));
+
+    private final PropertyFileFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    // CSV only: header column name -> cell index
+    private Map<String, Integer> columns;
+
+    private int rowNumber = 0;
+    private boolean endOfInput = false;
+
+    // CSV only: character read ahead after a quote, or -1
+    private int lookahead = -1;
+
+    public static class Row {
+
+        private final int number;
+        private final PropertyDto property;
+        private final String error;
+
+        Row(int number, PropertyDto property, String error) {
+            this.number = number;
+            this.property = property;
+            this.error = error;
+        }
+
+        /** 1-based record number, not counting the CSV header. */
+        public int getNumber() { return number; }
+
+        public PropertyDto getProperty() { return property; }
+
+        public String getError() { return error; }
+
+        public boolean isValid() { return error == null; }
+    }
+
+    public PropertyImportReader(PropertyFileFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        if (format == PropertyFileFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    /** The next record, or null once the input is exhausted. */
+    public Row next() throws IOException {
+        return format == PropertyFileFormat.CSV ? nextCsvRow() : nextJsonRow();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new RuntimeException("Import file is empty");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw new RuntimeException("Import file is missing the required column: " + column);
+            }
+        }
+    }
+
+    private Row nextJsonRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        int number = ++rowNumber;
+        try {
+            PropertyDto property = objectMapper.readValue(line, PropertyDto.class);
+            if (property == null) {
+                return new Row(number, null, "Invalid JSON: expected an object, got null");
+            }
+            property.setId(null);
+            return new Row(number, property, null);
+        } catch (JsonProcessingException e) {
+            return new Row(number, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsvRow() throws IOException {
+        List<String> cells;
+        try {
+            do {
+                cells = readRecord();
+                if (cells == null) {
+                    return null;
+                }
+            } while (cells.size() == 1 && cells.get(0).isBlank());
+        } catch (IllegalArgumentException e) {
+            return new Row(++rowNumber, null, e.getMessage());
+        }
+
+        int number = ++rowNumber;
+        try {
+            PropertyDto property = new PropertyDto();
+            property.setTitle(cell(cells, "title"));
+            property.setDescription(cell(cells, "description"));
+            property.setPrice(decimal(cells, "price"));
+            property.setType(enumValue(PropertyType.class, cells, "type"));
+            property.setStatus(enumValue(PropertyStatus.class, cells, "status"));
+            property.setAddress(cell(cells, "address"));
+            property.setCity(cell(cells, "city"));
+            property.setState(cell(cells, "state"));
+            property.setZipCode(cell(cells, "zipCode"));
+            property.setBedrooms(integer(cells, "bedrooms"));
+            property.setBathrooms(integer(cells, "bathrooms"));
+            property.setSquareFeet(integer(cells, "squareFeet"));
+            property.setLotSize(decimalDouble(cells, "lotSize"));
+            property.setYearBuilt(integer(cells, "yearBuilt"));
+            property.setLatitude(decimalDouble(cells, "latitude"));
+            property.setLongitude(decimalDouble(cells, "longitude"));
+            String featured = cell(cells, "isFeatured");
+            property.setIsFeatured(featured != null && Boolean.parseBoolean(featured));
+            property.setImageUrls(list(cells, "imageUrls"));
+            property.setFeatures(list(cells, "features"));
+            return new Row(number, property, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(number, null, e.getMessage());
+        }
+    }
+
+    private String cell(List<String> cells, String column) {
+        Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private BigDecimal decimal(List<String> cells, String column) {
+        String value = cell(cells, column);
+        try {
+            return value == null ? null : new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": not a number: " + value);
+        }
+    }
+
+    private Double decimalDouble(List<String> cells, String column) {
+        BigDecimal value = decimal(cells, column);
+        return value == null ? null : value.doubleValue();
+    }
+
+    private Integer integer(List<String> cells, String column) {
+        String value = cell(cells, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": not an integer: " + value);
+        }
+    }
+
+    private <E extends Enum<E>> E enumValue(Class<E> type, List<String> cells, String column) {
+        String value = cell(cells, column);
+        try {
+            return value == null ? null : Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + ": unknown value: " + value
+                    + " (expected one of " + Arrays.toString(type.getEnumConstants()) + ")");
+        }
+    }
+
+    private List<String> list(List<String> cells, String column) {
+        String value = cell(cells, column);
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String item : LIST_SPLIT.split(value)) {
+                if (!item.isBlank()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    // One RFC 4180 record: quoted cells may contain separators, doubled quotes and line breaks
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        // Room for the record plus the character read ahead after a closing quote
+        reader.mark(MAX_RECORD_LENGTH + 2);
+        int length = 0;
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+        while ((c = read()) != -1) {
+            empty = false;
+            if (++length > MAX_RECORD_LENGTH) {
+                skipFirstLine();
+                throw new IllegalArgumentException("Record is longer than " + MAX_RECORD_LENGTH
+                        + " characters; check for an unclosed quote");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        lookahead = next;
+                        quoted = false;
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                cell.append((char) c);
+            }
+        }
+        if (c == -1) {
+            if (quoted) {
+                skipFirstLine();
+                throw new IllegalArgumentException("Unclosed quote");
+            }
+            endOfInput = true;
+            if (empty) {
+                return null;
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -1) {
+            int c = lookahead;
+            lookahead = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    // Rewinds to the start of a malformed record and drops only its first line
+    private void skipFirstLine() throws IOException {
+        reader.reset();
+        lookahead = -1;
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && c != '\n');
+        endOfInput = c == -1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.dto.TimeSeriesDto;
+import com.dreamhome.entity.AnalyticsMetric;
+import com.dreamhome.entity.AnalyticsWatermark;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyType;
+import com.dreamhome.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AnalyticsService rollups on H2, driven by hand instead of the schedule.
+ * Listings are back-dated to fixed hours; the rollup lag is moved so that
+ * the first run stops part-way through them, and the second run picks up
+ * exactly where the watermark was left.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:analytics-rollup;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "rate-limit.enabled=false",
+        "analytics.rollup.interval=PT24H"
+})
+class AnalyticsRollupTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AnalyticsWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupsCountEachListingOnceAndZeroFillTheSeries() {
+        for (LocalDateTime createdAt : List.of(DAY.withHour(9).withMinute(15), DAY.withHour(9).withMinute(45),
+                DAY.withHour(11).withMinute(5), DAY.withHour(23).withMinute(50), DAY.plusDays(1).withMinute(10))) {
+            listingCreatedAt(createdAt);
+        }
+
+        // First run: cutoff at 10:00 on the day, so only the two 09:xx listings are counted
+        LocalDateTime firstCutoff = DAY.withHour(10);
+        ReflectionTestUtils.setField(analyticsService, "lag", Duration.between(firstCutoff, LocalDateTime.now()));
+        analyticsService.rollUp();
+
+        LocalDateTime watermark = processedUntil();
+        assertTrue(!watermark.isBefore(firstCutoff) && watermark.isBefore(firstCutoff.plusMinutes(1)), watermark.toString());
+        assertEquals(List.of(0L, 2L, 0L, 0L, 0L), hourly("2024-03-10T08:00", "2024-03-10T13:00"));
+        assertEquals(List.of(0L, 2L, 0L), daily("2024-03-09", "2024-03-12"));
+
+        // Second run: everything up to now, continuing from the watermark
+        ReflectionTestUtils.setField(analyticsService, "lag", Duration.ZERO);
+        analyticsService.rollUp();
+        analyticsService.rollUp();
+
+        assertTrue(processedUntil().isAfter(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(List.of(0L, 2L, 0L, 1L, 0L), hourly("2024-03-10T08:00", "2024-03-10T13:00"));
+        assertEquals(List.of(1L, 1L), hourly("2024-03-10T23:00", "2024-03-11T01:00"));
+        assertEquals(List.of(0L, 4L, 1L), daily("2024-03-09", "2024-03-12"));
+
+        TimeSeriesDto series = analyticsService.getTimeSeries("LISTINGS", "DAY", "2024-03-09", "2024-03-12");
+        assertEquals(processedUntil(), series.getProcessedUntil());
+        assertEquals(LocalDateTime.of(2024, 3, 9, 0, 0), series.getPoints().get(0).getBucketStart());
+    }
+
+    private void listingCreatedAt(LocalDateTime createdAt) {
+        Property property = propertyRepository.save(new Property("Rollup listing", "Description",
+                new BigDecimal("100000"), PropertyType.HOUSE, "1 Main St", "Springfield", "IL", "62701"));
+        jdbcTemplate.update("UPDATE properties SET created_at = ? WHERE id = ?", createdAt, property.getId());
+    }
+
+    private LocalDateTime processedUntil() {
+        return watermarkRepository.findById(AnalyticsMetric.LISTINGS)
+                .map(AnalyticsWatermark::getProcessedUntil).orElseThrow();
+    }
+
+    private List<Long> hourly(String from, String to) {
+        return counts(analyticsService.getTimeSeries("listings", "hour", from, to));
+    }
+
+    private List<Long> daily(String from, String to) {
+        return counts(analyticsService.getTimeSeries("listings", "day", from, to));
+    }
+
+    private static List<Long> counts(TimeSeriesDto series) {
+        return series.getPoints().stream().map(TimeSeriesDto.Point::getCount).collect(Collectors.toList());
+    }
+}
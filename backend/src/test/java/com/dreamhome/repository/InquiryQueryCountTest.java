@@ -0,0 +1,73 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.dto.InquirySummaryDto;
+import com.dreamhome.entity.Inquiry;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyType;
+import com.dreamhome.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The admin inquiry page must cost the same number of statements whatever
+ * its size: one page query joining user and property, plus the count query.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class InquiryQueryCountTest {
+
+    private static final int INQUIRIES = 60;
+
+    @Autowired
+    private InquiryRepository inquiryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < INQUIRIES; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "secret1", "First" + i, "Last" + i);
+            Property property = new Property("Listing " + i, "Description", new BigDecimal(100000 + i),
+                    PropertyType.HOUSE, i + " Main St", "Springfield", "IL", "62701");
+            entityManager.persist(user);
+            entityManager.persist(property);
+            entityManager.persist(new Inquiry(property, user, "Is it still available?"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void summaryPageCostsConstantStatements(int size) {
+        Page<InquirySummaryDto> page = inquiryRepository.findSummaries(
+                PageRequest.of(0, size, Sort.by("createdAt").descending()));
+
+        assertEquals(size, page.getNumberOfElements());
+        assertEquals("Springfield", page.getContent().get(0).getPropertyCity());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,174 @@
+package com.dreamhome.repository;
+
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Counts the SQL statements needed to load a page of listings and touch
+ * every element collection, as PropertyService.convertToDto does. The count
+ * must not grow with the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class PropertyQueryCountTest {
+
+    private static final int LISTINGS = 60;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < LISTINGS; i++) {
+            Property property = new Property("Listing " + i, "Description", new BigDecimal(100000 + i),
+                    PropertyType.HOUSE, i + " Main St", "Springfield", "IL", "62701");
+            property.setBedrooms(3);
+            property.setImageUrls(new ArrayList<>(List.of("a" + i + ".jpg", "b" + i + ".jpg")));
+            property.setFeatures(new ArrayList<>(List.of("Pool", "Garage")));
+            entityManager.persist(property);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Page query + count query + one batch per element collection
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void findByStatusPageCostsConstantStatements(int size) {
+        long statements = countStatements(() -> propertyRepository.findByStatus(
+                PropertyStatus.AVAILABLE, PageRequest.of(0, size, Sort.by("createdAt").descending())).getContent());
+        assertEquals(4, statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void filteredPageCostsConstantStatements(int size) {
+        long statements = countStatements(() -> {
+            Page<Property> page = propertyRepository.findPropertiesWithFilters(PropertyStatus.AVAILABLE,
+                    null, null, PropertyType.HOUSE, 2, null, "spring", PageRequest.of(0, size, Sort.by("price")));
+            return page.getContent();
+        });
+        assertEquals(4, statements);
+    }
+
+    // findAllById backs the index-served endpoints: one select + one batch per collection
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void loadingIdsCostsConstantStatements(int size) {
+        List<Long> ids = entityManager.createQuery("SELECT p.id FROM Property p ORDER BY p.id", Long.class)
+                .setMaxResults(size)
+                .getResultList();
+        statistics.clear();
+
+        long statements = countStatements(() -> propertyRepository.findAllById(ids));
+        assertEquals(3, statements);
+    }
+
+    // Card projections skip the entity and its collections: page query + count query + one image query
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void cardPageCostsConstantStatements(int size) {
+        entityManager.clear();
+        statistics.clear();
+        Page<PropertyCardDto> cards = propertyRepository.findCardsWithFilters(PropertyStatus.AVAILABLE,
+                null, null, PropertyType.HOUSE, 2, null, "spring", PageRequest.of(0, size, Sort.by("price")));
+        List<Object[]> images = propertyRepository.findImageUrlsByPropertyIds(
+                cards.getContent().stream().map(PropertyCardDto::getId).toList());
+
+        assertEquals(size, cards.getNumberOfElements());
+        assertNull(cards.getContent().get(0).getImageUrl());
+        assertEquals(2 * size, images.size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // Admin statistics: one grouped status x type query plus one window-function median query
+    @Test
+    void statisticsCostTwoStatements() {
+        List<Object[]> summary = propertyRepository.summarizeByStatusAndType();
+        List<Object[]> medians = propertyRepository.findMedianPriceByType();
+
+        assertEquals(1, summary.size());
+        assertEquals((long) LISTINGS, summary.get(0)[2]);
+        assertEquals("HOUSE", medians.get(0)[0]);
+        // Prices 100000..100059: the mean of the two middle rows
+        assertEquals(0, new BigDecimal("100029.5").compareTo(new BigDecimal(medians.get(0)[1].toString())));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Second-level cache: once a listing and its collections are cached, a fresh
+    // persistence context loads them without any SQL. Entities inserted by the
+    // current transaction are never cached, so the fixture is committed first.
+    @Test
+    void repeatedDetailReadIsServedFromSecondLevelCache() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            entityManager.getEntityManagerFactory().getCache().evictAll();
+            Long id = transaction.execute(status -> entityManager
+                    .createQuery("SELECT MIN(p.id) FROM Property p", Long.class).getSingleResult());
+
+            long first = transaction.execute(status ->
+                    countStatements(() -> List.of(propertyRepository.findById(id).orElseThrow())));
+            long second = transaction.execute(status ->
+                    countStatements(() -> List.of(propertyRepository.findById(id).orElseThrow())));
+
+            assertEquals(3, first);
+            assertEquals(0, second);
+            assertEquals(3, statistics.getSecondLevelCacheHitCount());
+        } finally {
+            transaction.executeWithoutResult(status -> propertyRepository.deleteAll());
+            entityManager.getEntityManagerFactory().getCache().evictAll();
+        }
+    }
+
+    private long countStatements(Supplier<List<Property>> query) {
+        entityManager.clear();
+        statistics.clear();
+        for (Property property : query.get()) {
+            property.getImageUrls().size();
+            property.getFeatures().size();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,377 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PropertyAttributeStore against filtering and sorting the same listings
+ * with plain streams, mirroring the JPQL semantics: a null criterion is no
+ * constraint, prices compare exactly, the city matches as a case-insensitive
+ * substring, and sort ties are broken by id in the sort direction. Facet
+ * counts are checked against the same filtering with the facet's own
+ * criterion dropped. Feature tags match trimmed and case-insensitively.
+ */
+class PropertyAttributeStoreTest {
+
+    private static final String[] CITIES = {"Springfield", "SPRINGFIELD", "Shelbyville", "Ogdenville",
+            "North Haverbrook", "Capital City", "Brockway", "Spring Lake"};
+    private static final String[] FEATURES = {"Pool", "pool ", "Garage", "Garden", "Fireplace", "Gym"};
+    private static final String[] SORTS = {"id", "createdAt", "price", "bedrooms", "bathrooms"};
+
+    private final Random random = new Random(11);
+    private final PropertyFeatureIndex featureIndex = new PropertyFeatureIndex();
+    private final PropertyAttributeStore store = new PropertyAttributeStore();
+    private final Map<Long, Property> listings = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "propertyFeatureIndex", featureIndex);
+        for (int i = 0; i < 600; i++) {
+            long id = 1 + random.nextInt(2000);
+            listings.put(id, randomListing(id));
+        }
+        rebuild();
+    }
+
+    @Test
+    void filterMatchesAStreamOverTheListings() {
+        for (int i = 0; i < 400; i++) {
+            PropertyFilter filter = randomFilter();
+            String sortBy = SORTS[random.nextInt(SORTS.length)];
+            boolean descending = random.nextBoolean();
+            assertFilter(filter, sortBy, descending);
+        }
+    }
+
+    @Test
+    void pagesAreSlicesOfTheFullOrdering() {
+        PropertyFilter filter = new PropertyFilter(null, null, null, 2, null, null);
+        for (String sortBy : SORTS) {
+            List<Long> all = store.filter(filter, 0, Integer.MAX_VALUE, sortBy, true).getIds();
+            SearchHits page = store.filter(filter, 40, 20, sortBy, true);
+            assertEquals(all.subList(40, 60), page.getIds(), sortBy);
+            assertEquals(all.size(), page.getTotal());
+        }
+        SearchHits past = store.filter(filter, listings.size(), 20, "price", false);
+        assertEquals(List.of(), past.getIds());
+    }
+
+    @Test
+    void pricesCompareExactlyAtTheCent() {
+        listings.clear();
+        listings.put(1L, listing(1L, "99.99", 1));
+        listings.put(2L, listing(2L, "100.00", 1));
+        listings.put(3L, listing(3L, "100.01", 1));
+        rebuild();
+
+        assertEquals(List.of(2L, 3L), ids(new PropertyFilter(new BigDecimal("99.995"), null, null, null, null, null)));
+        assertEquals(List.of(1L, 2L), ids(new PropertyFilter(null, new BigDecimal("100.009"), null, null, null, null)));
+        assertEquals(List.of(2L), ids(new PropertyFilter(new BigDecimal("100"), new BigDecimal("100"), null, null, null, null)));
+    }
+
+    @Test
+    void matcherAgreesWithFilter() {
+        for (int i = 0; i < 100; i++) {
+            PropertyFilter filter = randomFilter();
+            Set<Long> expected = new HashSet<>(store.filter(filter, 0, Integer.MAX_VALUE, "id", false).getIds());
+            LongPredicate matcher = store.matcher(filter);
+            for (long id = 0; id <= 2001; id++) {
+                assertEquals(expected.contains(id), matcher.test(id), "id " + id);
+            }
+        }
+    }
+
+    @Test
+    void upsertAndRemoveMatchARebuild() {
+        for (int i = 0; i < 500; i++) {
+            long id = 1 + random.nextInt(2100);
+            if (random.nextInt(4) == 0) {
+                store.remove(id);
+                featureIndex.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                store.upsert(property);
+                featureIndex.upsert(property);
+                listings.put(id, property);
+            }
+        }
+        assertEquals(listings.size(), store.size());
+        for (int i = 0; i < 200; i++) {
+            assertFilter(randomFilter(), SORTS[random.nextInt(SORTS.length)], random.nextBoolean());
+        }
+    }
+
+    @Test
+    void eachFacetIgnoresOnlyItsOwnCriterion() {
+        for (int i = 0; i < 300; i++) {
+            PropertyFilter filter = randomFilter();
+            FacetCounts facets = store.facets(filter);
+            String context = describe(filter);
+
+            assertEquals(count(filter, null), facets.getMatching(), context);
+
+            PropertyFilter anyType = new PropertyFilter(filter.getMinPrice(), filter.getMaxPrice(), null,
+                    filter.getMinBedrooms(), filter.getMaxBedrooms(), filter.getCity(), filter.getFeatures(),
+                    filter.isMatchAllFeatures());
+            Map<PropertyType, Long> types = new EnumMap<>(PropertyType.class);
+            for (PropertyType type : PropertyType.values()) {
+                types.put(type, count(anyType, p -> p.getType() == type));
+            }
+            assertEquals(types, facets.getTypes(), context);
+
+            PropertyFilter anyPrice = new PropertyFilter(null, null, filter.getType(),
+                    filter.getMinBedrooms(), filter.getMaxBedrooms(), filter.getCity(), filter.getFeatures(),
+                    filter.isMatchAllFeatures());
+            Map<String, Long> prices = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < PropertyAttributeStore.PRICE_BUCKETS.length; bucket++) {
+                int b = bucket;
+                prices.put(PropertyAttributeStore.PRICE_BUCKETS[bucket], count(anyPrice, p -> priceBucket(p) == b));
+            }
+            assertEquals(prices, facets.getPrices(), context);
+
+            PropertyFilter anyBedrooms = new PropertyFilter(filter.getMinPrice(), filter.getMaxPrice(), filter.getType(),
+                    null, null, filter.getCity(), filter.getFeatures(), filter.isMatchAllFeatures());
+            Map<String, Long> bedrooms = new LinkedHashMap<>();
+            for (int beds = 0; beds < PropertyAttributeStore.BEDROOM_BUCKETS.length; beds++) {
+                int b = beds;
+                bedrooms.put(PropertyAttributeStore.BEDROOM_BUCKETS[beds], count(anyBedrooms,
+                        p -> Math.min(p.getBedrooms() == null ? 0 : p.getBedrooms(), 5) == b));
+            }
+            assertEquals(bedrooms, facets.getBedrooms(), context);
+
+            // Cities are grouped case-insensitively and listed most frequent first
+            PropertyFilter anyCity = new PropertyFilter(filter.getMinPrice(), filter.getMaxPrice(), filter.getType(),
+                    filter.getMinBedrooms(), filter.getMaxBedrooms(), null, filter.getFeatures(),
+                    filter.isMatchAllFeatures());
+            Map<String, Long> cities = listings.values().stream()
+                    .filter(p -> matches(p, anyCity))
+                    .collect(Collectors.groupingBy(p -> p.getCity().toLowerCase(), Collectors.counting()));
+            Map<String, Long> actualCities = new HashMap<>();
+            facets.getCities().forEach((city, count) -> actualCities.put(city.toLowerCase(), count));
+            assertEquals(cities, actualCities, context);
+            List<Long> order = new ArrayList<>(facets.getCities().values());
+            List<Long> descending = new ArrayList<>(order);
+            descending.sort(Comparator.reverseOrder());
+            assertEquals(descending, order, context);
+        }
+    }
+
+    @Test
+    void priceFacetBoundariesBelongToTheUpperBucket() {
+        listings.clear();
+        listings.put(1L, listing(1L, "99999.99", 1));
+        listings.put(2L, listing(2L, "100000.00", 1));
+        listings.put(3L, listing(3L, "1000000.00", 9));
+        rebuild();
+
+        FacetCounts facets = store.facets(new PropertyFilter(null, null, null, null, null, null));
+        assertEquals(List.of(1L, 1L, 0L, 0L, 1L), new ArrayList<>(facets.getPrices().values()));
+        assertEquals(List.of(0L, 2L, 0L, 0L, 0L, 1L), new ArrayList<>(facets.getBedrooms().values()));
+        assertEquals(Map.of("Springfield", 3L), facets.getCities());
+    }
+
+    @Test
+    void upsertAllMatchesSequentialUpserts() {
+        PropertyAttributeStore sequential = new PropertyAttributeStore();
+        ReflectionTestUtils.setField(sequential, "propertyFeatureIndex", featureIndex);
+        sequential.rebuild(listings.values());
+
+        for (int round = 0; round < 40; round++) {
+            // Ids repeat within a batch; the last version must win, as with one upsert after another
+            List<Property> batch = new ArrayList<>();
+            for (int i = 0, size = 1 + random.nextInt(60); i < size; i++) {
+                batch.add(randomListing(1 + random.nextInt(2100)));
+            }
+            store.upsertAll(batch);
+            for (Property property : batch) {
+                sequential.upsert(property);
+                featureIndex.upsert(property);
+                listings.put(property.getId(), property);
+            }
+            long removed = 1 + random.nextInt(2100);
+            store.remove(removed);
+            sequential.remove(removed);
+            featureIndex.remove(removed);
+            listings.remove(removed);
+        }
+
+        assertEquals(listings.size(), store.size());
+        for (int i = 0; i < 200; i++) {
+            PropertyFilter filter = randomFilter();
+            String sortBy = SORTS[random.nextInt(SORTS.length)];
+            boolean descending = random.nextBoolean();
+            assertFilter(filter, sortBy, descending);
+            assertEquals(sequential.filter(filter, 0, Integer.MAX_VALUE, sortBy, descending).getIds(),
+                    store.filter(filter, 0, Integer.MAX_VALUE, sortBy, descending).getIds(), describe(filter));
+
+            // City codes may be assigned in a different order; the decoded counts must agree
+            FacetCounts expected = sequential.facets(filter);
+            FacetCounts actual = store.facets(filter);
+            assertEquals(expected.getCities(), actual.getCities(), describe(filter));
+            assertEquals(expected.getPrices(), actual.getPrices(), describe(filter));
+            assertEquals(expected.getBedrooms(), actual.getBedrooms(), describe(filter));
+            assertEquals(expected.getTypes(), actual.getTypes(), describe(filter));
+        }
+    }
+
+    @Test
+    void onlyKnownFieldsCanBeSorted() {
+        assertTrue(store.supportsSort("price"));
+        assertFalse(store.supportsSort("title"));
+    }
+
+    private void assertFilter(PropertyFilter filter, String sortBy, boolean descending) {
+        Comparator<Property> order = Comparator.comparingLong((Property p) -> sortKey(p, sortBy))
+                .thenComparingLong(Property::getId);
+        List<Long> expected = listings.values().stream()
+                .filter(p -> matches(p, filter))
+                .sorted(descending ? order.reversed() : order)
+                .map(Property::getId)
+                .collect(Collectors.toList());
+
+        SearchHits hits = store.filter(filter, 0, Integer.MAX_VALUE, sortBy, descending);
+        String context = describe(filter) + " by " + sortBy + (descending ? " desc" : " asc");
+        assertEquals(expected, hits.getIds(), context);
+        assertEquals(expected.size(), hits.getTotal(), context);
+    }
+
+    private long count(PropertyFilter filter, Predicate<Property> extra) {
+        return listings.values().stream().filter(p -> matches(p, filter) && (extra == null || extra.test(p))).count();
+    }
+
+    private static int priceBucket(Property p) {
+        long[] bounds = {100_000, 250_000, 500_000, 1_000_000};
+        int bucket = 0;
+        while (bucket < bounds.length && p.getPrice().compareTo(BigDecimal.valueOf(bounds[bucket])) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private List<Long> ids(PropertyFilter filter) {
+        return store.filter(filter, 0, Integer.MAX_VALUE, "id", false).getIds();
+    }
+
+    private void rebuild() {
+        store.rebuild(listings.values());
+        featureIndex.rebuild(listings.values());
+    }
+
+    private static boolean matches(Property p, PropertyFilter filter) {
+        int beds = p.getBedrooms() == null ? 0 : p.getBedrooms();
+        return (filter.getMinPrice() == null || p.getPrice().compareTo(filter.getMinPrice()) >= 0)
+                && (filter.getMaxPrice() == null || p.getPrice().compareTo(filter.getMaxPrice()) <= 0)
+                && (filter.getType() == null || p.getType() == filter.getType())
+                && (filter.getMinBedrooms() == null || beds >= filter.getMinBedrooms())
+                && (filter.getMaxBedrooms() == null || beds <= filter.getMaxBedrooms())
+                && (filter.getCity() == null || p.getCity().toLowerCase().contains(filter.getCity().toLowerCase()))
+                && matchesFeatures(p, filter);
+    }
+
+    private static boolean matchesFeatures(Property p, PropertyFilter filter) {
+        Set<String> wanted = filter.getFeatures().stream()
+                .map(f -> f.trim().toLowerCase(Locale.ROOT)).filter(f -> !f.isEmpty()).collect(Collectors.toSet());
+        if (filter.getFeatures().isEmpty()) {
+            return true;
+        }
+        Set<String> has = p.getFeatures().stream()
+                .map(f -> f.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        return filter.isMatchAllFeatures()
+                ? !wanted.isEmpty() && has.containsAll(wanted)
+                : wanted.stream().anyMatch(has::contains);
+    }
+
+    private static long sortKey(Property p, String sortBy) {
+        switch (sortBy) {
+            case "createdAt":
+                return p.getCreatedAt() == null ? 0 : p.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+            case "price":
+                return p.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            case "bedrooms":
+                return p.getBedrooms() == null ? 0 : p.getBedrooms();
+            case "bathrooms":
+                return p.getBathrooms() == null ? 0 : p.getBathrooms();
+            default:
+                return p.getId();
+        }
+    }
+
+    private PropertyFilter randomFilter() {
+        BigDecimal minPrice = random.nextBoolean() ? null : randomPrice().setScale(3, RoundingMode.DOWN);
+        BigDecimal maxPrice = random.nextBoolean() ? null : randomPrice();
+        PropertyType type = random.nextBoolean() ? null : PropertyType.values()[random.nextInt(PropertyType.values().length)];
+        Integer minBedrooms = random.nextBoolean() ? null : random.nextInt(5);
+        Integer maxBedrooms = random.nextBoolean() ? null : random.nextInt(8);
+        String city = random.nextBoolean() ? null : new String[]{"spring", "FIELD", "ville", "x", "capital city", ""}[random.nextInt(6)];
+        List<String> features = new ArrayList<>();
+        if (random.nextInt(3) > 0) {
+            for (String feature : new String[]{"pool", " POOL", "Garage", "gym", "Sauna", " "}) {
+                if (random.nextInt(4) == 0) {
+                    features.add(feature);
+                }
+            }
+        }
+        return new PropertyFilter(minPrice, maxPrice, type, minBedrooms, maxBedrooms, city, features,
+                random.nextBoolean());
+    }
+
+    private Property randomListing(long id) {
+        Property property = listing(id, randomPrice().toPlainString(), random.nextInt(10) == 0 ? null : random.nextInt(8));
+        property.setBathrooms(random.nextInt(10) == 0 ? null : random.nextInt(4));
+        property.setType(PropertyType.values()[random.nextInt(PropertyType.values().length)]);
+        property.setCity(CITIES[random.nextInt(CITIES.length)]);
+        // Whole minutes, so some listings share a creation time
+        property.setCreatedAt(random.nextInt(10) == 0 ? null
+                : LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500)));
+        List<String> features = new ArrayList<>();
+        for (String feature : FEATURES) {
+            if (random.nextInt(3) == 0) {
+                features.add(feature);
+            }
+        }
+        property.setFeatures(features);
+        return property;
+    }
+
+    private BigDecimal randomPrice() {
+        // Every tenth price sits exactly on a price facet boundary
+        if (random.nextInt(10) == 0) {
+            return new BigDecimal(new long[]{100_000, 250_000, 500_000, 1_000_000}[random.nextInt(4)]).setScale(2);
+        }
+        return BigDecimal.valueOf(random.nextInt(150_000_000), 2);
+    }
+
+    private static Property listing(Long id, String price, Integer bedrooms) {
+        Property property = new Property();
+        property.setId(id);
+        property.setPrice(new BigDecimal(price));
+        property.setBedrooms(bedrooms);
+        property.setType(PropertyType.HOUSE);
+        property.setCity("Springfield");
+        property.setFeatures(new ArrayList<>());
+        return property;
+    }
+
+    private static String describe(PropertyFilter f) {
+        return "price " + f.getMinPrice() + ".." + f.getMaxPrice() + " type " + f.getType() + " beds "
+                + f.getMinBedrooms() + ".." + f.getMaxBedrooms() + " city " + f.getCity()
+                + " features " + f.getFeatures() + (f.isMatchAllFeatures() ? " (all)" : " (any)");
+    }
+}
@@ -0,0 +1,191 @@
+package com.dreamhome.search;
+
+import com.dreamhome.dto.PropertyClusterDto;
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PropertyClusterIndex against aggregating the listings of each geohash
+ * cell directly: a viewport must return exactly the non-empty cells that
+ * intersect it, each with the count, mean position and price range of its
+ * listings.
+ */
+class PropertyClusterIndexTest {
+
+    private final Random random = new Random(5);
+    private final PropertyClusterIndex index = new PropertyClusterIndex();
+    private final Map<Long, Property> listings = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2000; id++) {
+            listings.put(id, randomListing(id));
+        }
+        index.rebuild(listings.values());
+    }
+
+    @Test
+    void geohashEncodesTheReferencePoint() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        double[] cell = Geohash.bounds("u4pruydqqvj");
+        assertTrue(cell[0] <= 57.64911 && 57.64911 <= cell[2]);
+        assertTrue(cell[1] <= 10.40744 && 10.40744 <= cell[3]);
+        for (int precision = 1; precision <= PropertyClusterIndex.MAX_PRECISION; precision++) {
+            double[] bounds = Geohash.bounds(Geohash.encode(-33.87, 151.21, precision));
+            assertEquals(Geohash.cellHeight(precision), bounds[2] - bounds[0], 1e-9);
+            assertEquals(Geohash.cellWidth(precision), bounds[3] - bounds[1], 1e-9);
+        }
+    }
+
+    @Test
+    void clustersMatchADirectAggregation() {
+        for (int i = 0; i < 300; i++) {
+            assertClusters(randomBox(), random.nextInt(21));
+        }
+    }
+
+    @Test
+    void upsertAndRemoveKeepTheAggregatesExact() {
+        for (int i = 0; i < 1500; i++) {
+            long id = 1 + random.nextInt(2200);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                index.upsert(property);
+                listings.put(id, property);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            assertClusters(randomBox(), random.nextInt(21));
+        }
+    }
+
+    @Test
+    void removingTheCheapestListingUpdatesThePriceRange() {
+        index.rebuild(List.of(listing(1L, 10.0, 10.0, "100.00"), listing(2L, 10.0001, 10.0001, "200.00"),
+                listing(3L, 10.0002, 10.0002, "300.00")));
+        index.remove(1L);
+        index.upsert(listing(3L, 10.0002, 10.0002, "150.00"));
+
+        List<PropertyClusterDto> clusters = index.clusters(9, 9, 11, 11, 0);
+        assertEquals(1, clusters.size());
+        assertEquals(2, clusters.get(0).getCount());
+        assertEquals(new BigDecimal("150.00"), clusters.get(0).getMinPrice());
+        assertEquals(new BigDecimal("200.00"), clusters.get(0).getMaxPrice());
+    }
+
+    @Test
+    void boxAcrossTheAntimeridianCoversBothSides() {
+        index.rebuild(List.of(listing(1L, 0.0, 179.9, "1.00"), listing(2L, 0.0, -179.9, "1.00"),
+                listing(3L, 0.0, 0.0, "1.00"), listing(4L, 0.0, 180.0, "1.00")));
+
+        List<PropertyClusterDto> clusters = index.clusters(-1, 179, 1, -179, 6);
+        assertEquals(3, clusters.stream().mapToInt(PropertyClusterDto::getCount).sum());
+    }
+
+    @Test
+    void halvesOfAnAntimeridianBoxShareOnePrecision() {
+        index.rebuild(List.of(listing(1L, 10.0, 179.99, "1.00"), listing(2L, 10.0, -150.0, "1.00")));
+
+        // The west half alone would fit at a finer precision than the whole box
+        List<PropertyClusterDto> clusters = index.clusters(0, 179.9, 20, -140, 12);
+        assertEquals(2, clusters.size());
+        assertEquals(clusters.get(0).getGeohash().length(), clusters.get(1).getGeohash().length());
+    }
+
+    @Test
+    void wideViewportsAreCoarsened() {
+        List<PropertyClusterDto> clusters = index.clusters(-90, -180, 90, 180, 20);
+        assertTrue(clusters.size() <= 1024, "cells " + clusters.size());
+        assertEquals(listings.values().stream().filter(p -> p.getLatitude() != null).count(),
+                clusters.stream().mapToLong(PropertyClusterDto::getCount).sum());
+    }
+
+    private void assertClusters(double[] box, int zoom) {
+        double minLat = box[0], minLng = box[1], maxLat = box[2], maxLng = box[3];
+        List<PropertyClusterDto> clusters = index.clusters(minLat, minLng, maxLat, maxLng, zoom);
+        String context = Arrays.toString(box) + " zoom " + zoom;
+
+        Set<Integer> precisions = clusters.stream().map(c -> c.getGeohash().length()).collect(Collectors.toSet());
+        assertTrue(precisions.size() <= 1, context);
+        int precision = precisions.isEmpty() ? PropertyClusterIndex.precisionForZoom(zoom) : precisions.iterator().next();
+        assertTrue(precision <= PropertyClusterIndex.precisionForZoom(zoom), context);
+
+        Map<String, List<Property>> cells = listings.values().stream()
+                .filter(p -> p.getLatitude() != null)
+                .collect(Collectors.groupingBy(p -> Geohash.encode(p.getLatitude(),
+                        PropertyGeoIndex.normalizeLng(p.getLongitude()), precision)));
+        Map<String, List<Property>> expected = new TreeMap<>();
+        cells.forEach((hash, members) -> {
+            double[] cell = Geohash.bounds(hash);
+            boolean lngOverlap = minLng <= maxLng
+                    ? cell[1] <= maxLng && cell[3] >= minLng
+                    : cell[1] <= 180 && cell[3] >= minLng || cell[1] <= maxLng && cell[3] >= -180;
+            if (cell[0] <= maxLat && cell[2] >= minLat && lngOverlap) {
+                expected.put(hash, members);
+            }
+        });
+
+        Map<String, PropertyClusterDto> actual = new TreeMap<>();
+        clusters.forEach(c -> actual.put(c.getGeohash(), c));
+        assertEquals(expected.keySet(), actual.keySet(), context);
+        expected.forEach((hash, members) -> {
+            PropertyClusterDto cluster = actual.get(hash);
+            assertEquals(members.size(), cluster.getCount(), hash);
+            assertEquals(members.stream().mapToDouble(Property::getLatitude).average().orElseThrow(),
+                    cluster.getLatitude(), 1e-6, hash);
+            assertEquals(members.stream().mapToDouble(p -> PropertyGeoIndex.normalizeLng(p.getLongitude()))
+                    .average().orElseThrow(), cluster.getLongitude(), 1e-6, hash);
+            assertEquals(members.stream().map(Property::getPrice).min(Comparator.naturalOrder()).orElseThrow(),
+                    cluster.getMinPrice(), hash);
+            assertEquals(members.stream().map(Property::getPrice).max(Comparator.naturalOrder()).orElseThrow(),
+                    cluster.getMaxPrice(), hash);
+        });
+    }
+
+    private double[] randomBox() {
+        double minLat = -90 + random.nextDouble() * 170;
+        double maxLat = Math.min(90, minLat + random.nextDouble() * (random.nextBoolean() ? 2 : 60));
+        double minLng = -180 + random.nextDouble() * 360;
+        double width = random.nextDouble() * (random.nextBoolean() ? 2 : 90);
+        double maxLng = minLng + width > 180 ? minLng + width - 360 : minLng + width;
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+
+    private Property randomListing(long id) {
+        if (random.nextInt(20) == 0) {
+            return listing(id, null, null, "1000.00");
+        }
+        // Most listings in two metro areas, the rest anywhere
+        double lat;
+        double lng;
+        if (random.nextBoolean()) {
+            lat = -90 + random.nextDouble() * 180;
+            lng = -180 + random.nextDouble() * 360;
+        } else {
+            boolean first = random.nextBoolean();
+            lat = (first ? 40.7 : -36.85) + random.nextGaussian() * 0.2;
+            lng = (first ? -74.0 : 174.76) + random.nextGaussian() * 0.2;
+        }
+        return listing(id, lat, lng, BigDecimal.valueOf(random.nextInt(100_000_000), 2).toPlainString());
+    }
+
+    private static Property listing(Long id, Double lat, Double lng, String price) {
+        Property property = new Property();
+        property.setId(id);
+        property.setLatitude(lat);
+        property.setLongitude(lng);
+        property.setPrice(new BigDecimal(price));
+        return property;
+    }
+}
@@ -0,0 +1,134 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PropertyFeatureIndex against checking each listing's tags directly: tags
+ * compare trimmed and case-insensitively, "all" needs every requested tag,
+ * "any" at least one, and blank requested tags are ignored.
+ */
+class PropertyFeatureIndexTest {
+
+    private static final String[] FEATURES = {"Pool", "pool ", " POOL", "Garage", "Garden", "Fireplace", "Gym", ""};
+    private static final String[] REQUESTED = {"pool", "GARAGE ", "garden", "Gym", "Sauna", "  "};
+
+    private final Random random = new Random(13);
+
+    @Test
+    void matchingAgreesWithTheListingsTags() {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            listings.put(id, randomListing(id));
+        }
+        PropertyFeatureIndex index = new PropertyFeatureIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 300; i++) {
+            assertMatching(index, listings, randomRequest(), random.nextBoolean());
+        }
+    }
+
+    @Test
+    void upsertAndRemoveKeepTheBitmapsExact() {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            listings.put(id, randomListing(id));
+        }
+        PropertyFeatureIndex index = new PropertyFeatureIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 1000; i++) {
+            long id = 1 + random.nextInt(250);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                index.upsert(property);
+                listings.put(id, property);
+            }
+            assertMatching(index, listings, randomRequest(), random.nextBoolean());
+        }
+    }
+
+    @Test
+    void resultIsACopyTheCallerMayModify() {
+        PropertyFeatureIndex index = new PropertyFeatureIndex();
+        index.rebuild(List.of(listing(1L, "Pool"), listing(2L, "Pool", "Garage")));
+
+        index.matching(List.of("pool"), true).remove(PropertySearchIndex.docId(1L));
+        index.matching(List.of("pool", "garage"), false).clear();
+
+        assertEquals(2, index.matching(List.of("pool"), true).getCardinality());
+        assertEquals(2, index.matching(List.of("pool", "garage"), false).getCardinality());
+    }
+
+    @Test
+    void unknownOrBlankTagsMatchNothing() {
+        PropertyFeatureIndex index = new PropertyFeatureIndex();
+        index.rebuild(List.of(listing(1L, "Pool"), listing(2L, "Garage")));
+
+        assertEquals(0, index.matching(List.of("pool", "sauna"), true).getCardinality());
+        assertEquals(1, index.matching(List.of("pool", "sauna"), false).getCardinality());
+        assertEquals(0, index.matching(List.of(" ", ""), false).getCardinality());
+        assertEquals(0, index.matching(List.of(), true).getCardinality());
+    }
+
+    private static void assertMatching(PropertyFeatureIndex index, Map<Long, Property> listings,
+                                       List<String> request, boolean matchAll) {
+        Set<String> wanted = normalized(request);
+        List<Integer> expected = listings.values().stream()
+                .filter(p -> {
+                    Set<String> has = normalized(p.getFeatures());
+                    return !wanted.isEmpty()
+                            && (matchAll ? has.containsAll(wanted) : wanted.stream().anyMatch(has::contains));
+                })
+                .map(p -> PropertySearchIndex.docId(p.getId()))
+                .sorted()
+                .collect(Collectors.toList());
+
+        RoaringBitmap actual = index.matching(request, matchAll);
+        List<Integer> ids = new ArrayList<>();
+        actual.forEach((int doc) -> ids.add(doc));
+        assertEquals(expected, ids, request + (matchAll ? " (all)" : " (any)"));
+    }
+
+    private static Set<String> normalized(Collection<String> tags) {
+        return tags.stream().map(tag -> tag.trim().toLowerCase(Locale.ROOT)).filter(tag -> !tag.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private List<String> randomRequest() {
+        List<String> request = new ArrayList<>();
+        for (String tag : REQUESTED) {
+            if (random.nextInt(3) == 0) {
+                request.add(tag);
+            }
+        }
+        return request;
+    }
+
+    private Property randomListing(long id) {
+        List<String> features = new ArrayList<>();
+        for (String feature : FEATURES) {
+            if (random.nextInt(3) == 0) {
+                features.add(feature);
+            }
+        }
+        return listing(id, features.toArray(new String[0]));
+    }
+
+    private static Property listing(Long id, String... features) {
+        Property property = new Property();
+        property.setId(id);
+        property.setFeatures(new ArrayList<>(Arrays.asList(features)));
+        return property;
+    }
+}
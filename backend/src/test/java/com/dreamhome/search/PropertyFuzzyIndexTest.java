@@ -0,0 +1,183 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PropertyFuzzyIndex against scanning the whole vocabulary with a plain
+ * Levenshtein distance: a term of four or more letters is corrected to every
+ * known alphabetic term within one edit (two from eight letters), closest
+ * first, then by trigram similarity, then alphabetically. Words come from a
+ * five-letter alphabet so most terms have near neighbours.
+ */
+class PropertyFuzzyIndexTest {
+
+    private final Random random = new Random(9);
+
+    @Test
+    void correctionsMatchAFullVocabularyScan() {
+        Map<Long, Property> listings = randomListings(300);
+        PropertyFuzzyIndex index = new PropertyFuzzyIndex();
+        index.rebuild(listings.values());
+
+        List<String> vocabulary = new ArrayList<>(vocabulary(listings));
+        for (int i = 0; i < 500; i++) {
+            String token = i % 2 == 0 ? mutate(vocabulary.get(random.nextInt(vocabulary.size()))) : word();
+            assertExpansion(index, listings, token);
+        }
+    }
+
+    @Test
+    void upsertAndRemoveKeepTheVocabularyExact() {
+        Map<Long, Property> listings = randomListings(200);
+        PropertyFuzzyIndex index = new PropertyFuzzyIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 600; i++) {
+            long id = 1 + random.nextInt(250);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                index.upsert(property);
+                listings.put(id, property);
+            }
+            assertExpansion(index, listings, word());
+        }
+    }
+
+    @Test
+    void expansionKeepsTheTokenFirstAndSkipsNumbersAndShortTerms() {
+        PropertyFuzzyIndex index = new PropertyFuzzyIndex();
+        index.rebuild(List.of(
+                listing(1L, "Apartment in Springfield", "Springfield", "12 Elm Street"),
+                listing(2L, "Spacious apartments", "Shelbyville", "14 Elm Road")));
+
+        // Eight letters allow two edits, so "apartments" qualifies behind "apartment"
+        assertEquals(List.of(List.of("sprngfield", "springfield"), List.of("apartmnt", "apartment", "apartments")),
+                index.expand("Sprngfield apartmnt sprngfield"));
+        // Seven letters allow one edit only
+        assertEquals(List.of(List.of("spacios", "spacious")), index.expand("spacios"));
+        assertEquals(List.of(List.of("spaios")), index.expand("spaios"));
+        // Numbers and terms under four letters are left alone; "elm" is still a correction target
+        assertEquals(List.of(List.of("13"), List.of("elm"), List.of("elms", "elm")), index.expand("13 elm elms"));
+        assertEquals(List.of(), index.expand("  "));
+    }
+
+    @Test
+    void boundedLevenshteinAgreesWithTheFullDistance() {
+        for (int i = 0; i < 2000; i++) {
+            String a = word();
+            String b = random.nextBoolean() ? mutate(mutate(a)) : word();
+            int distance = levenshtein(a, b);
+            for (int bound = 0; bound <= 3; bound++) {
+                assertEquals(Math.min(distance, bound + 1), PropertyFuzzyIndex.boundedLevenshtein(a, b, bound),
+                        a + " / " + b + " bound " + bound);
+            }
+        }
+    }
+
+    private static void assertExpansion(PropertyFuzzyIndex index, Map<Long, Property> listings, String token) {
+        List<String> expected = new ArrayList<>();
+        expected.add(token);
+        if (token.length() >= 4 && token.chars().allMatch(Character::isLetter)) {
+            int maxEdits = token.length() < 8 ? 1 : 2;
+            Set<String> grams = trigramSet(token);
+            vocabulary(listings).stream()
+                    .filter(term -> !term.equals(token) && levenshtein(token, term) <= maxEdits)
+                    .sorted(Comparator.comparingInt((String term) -> levenshtein(token, term))
+                            .thenComparing(term -> -jaccard(grams, trigramSet(term)))
+                            .thenComparing(term -> term))
+                    .limit(8)
+                    .forEach(expected::add);
+        }
+        assertEquals(List.of(expected), index.expand(token), token);
+    }
+
+    private static Set<String> vocabulary(Map<Long, Property> listings) {
+        Set<String> vocabulary = new TreeSet<>();
+        for (Property property : listings.values()) {
+            for (String text : new String[]{property.getTitle(), property.getCity(), property.getAddress()}) {
+                for (String term : Tokenizer.tokenize(text)) {
+                    if (term.length() >= 3 && term.chars().allMatch(Character::isLetter)) {
+                        vocabulary.add(term);
+                    }
+                }
+            }
+        }
+        return vocabulary;
+    }
+
+    private static Set<String> trigramSet(String term) {
+        String padded = "$$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        Set<String> shared = new HashSet<>(a);
+        shared.retainAll(b);
+        return (double) shared.size() / (a.size() + b.size() - shared.size());
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                d[i][j] = i == 0 ? j : j == 0 ? i : Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                        d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private Map<Long, Property> randomListings(int count) {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= count; id++) {
+            listings.put(id, randomListing(id));
+        }
+        return listings;
+    }
+
+    private Property randomListing(long id) {
+        return listing(id, word() + " " + word(), word(), random.nextInt(100) + " " + word() + " st");
+    }
+
+    private String word() {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 3 + random.nextInt(8); i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+
+    // One random insertion, deletion or substitution
+    private String mutate(String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        int at = random.nextInt(word.length());
+        char letter = (char) ('a' + random.nextInt(5));
+        switch (random.nextInt(3)) {
+            case 0 -> mutated.insert(at, letter);
+            case 1 -> mutated.deleteCharAt(at);
+            default -> mutated.setCharAt(at, letter);
+        }
+        return mutated.length() == 0 ? word : mutated.toString();
+    }
+
+    private static Property listing(Long id, String title, String city, String address) {
+        Property property = new Property();
+        property.setId(id);
+        property.setTitle(title);
+        property.setCity(city);
+        property.setAddress(address);
+        return property;
+    }
+}
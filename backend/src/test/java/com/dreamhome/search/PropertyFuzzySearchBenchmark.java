@@ -0,0 +1,140 @@
+package com.dreamhome.search;
+
+import com.dreamhome.DreamHomeApplication;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyType;
+import com.dreamhome.repository.PropertyRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of keyword search over the same listings on H2, through the
+ * application's own beans:
+ * <ul>
+ *   <li>{@code likeQuery}: PropertyRepository.searchProperties, the
+ *   {@code LOWER(..) LIKE '%keyword%'} scan over four columns that
+ *   PropertyService falls back to while the indexes are not built. It cannot
+ *   correct typos, so it gets the keyword spelt correctly</li>
+ *   <li>{@code indexExact}: PropertySearchIndex with the same keyword, then
+ *   the page loaded by id</li>
+ *   <li>{@code indexFuzzy}: the keyword misspelt, expanded by
+ *   PropertyFuzzyIndex before the PropertySearchIndex lookup, then the page
+ *   loaded by id</li>
+ * </ul>
+ *
+ * Not run by the test phase. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.dreamhome.search.PropertyFuzzySearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyFuzzySearchBenchmark {
+
+    private static final String[] WORDS = {
+            "sunny", "spacious", "modern", "cottage", "apartment", "villa", "garden", "river", "view", "lakeside",
+            "renovated", "family", "downtown", "quiet", "studio", "loft", "terrace", "harbour", "meadow", "orchard"
+    };
+    private static final String[] CITIES = {
+            "Springfield", "Shelbyville", "Riverton", "Oakland", "Lakewood", "Fairview", "Georgetown", "Madison"
+    };
+
+    private static final String KEYWORD = "riverton";
+    private static final String MISSPELT = "rivertn";
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Param({"5000", "20000"})
+    public int listings;
+
+    private ConfigurableApplicationContext context;
+    private PropertyRepository propertyRepository;
+    private PropertySearchIndex propertySearchIndex;
+    private PropertyFuzzyIndex propertyFuzzyIndex;
+
+    @Setup
+    public void setUp() {
+        // Arguments, unlike builder defaults, take precedence over application.yml
+        context = new SpringApplicationBuilder(DreamHomeApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:fuzzy-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0");
+        propertyRepository = context.getBean(PropertyRepository.class);
+        propertySearchIndex = context.getBean(PropertySearchIndex.class);
+        propertyFuzzyIndex = context.getBean(PropertyFuzzyIndex.class);
+
+        Random random = new Random(1);
+        List<Property> batch = new ArrayList<>();
+        for (int i = 0; i < listings; i++) {
+            Property property = new Property(words(random, 3), words(random, 25),
+                    BigDecimal.valueOf(50_000 + random.nextInt(2_000_000)), PropertyType.HOUSE,
+                    (1 + random.nextInt(999)) + " " + words(random, 1) + " Road",
+                    CITIES[random.nextInt(CITIES.length)], "IL", "62701");
+            batch.add(property);
+            if (batch.size() == 1000) {
+                propertyRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        propertyRepository.saveAll(batch);
+        context.getBean(PropertyIndexManager.class).rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Property> likeQuery() {
+        return propertyRepository.searchProperties(KEYWORD, PAGE);
+    }
+
+    @Benchmark
+    public List<Property> indexExact() {
+        return propertyRepository.findAllById(propertySearchIndex.search(KEYWORD, 0, PAGE.getPageSize()).getIds());
+    }
+
+    @Benchmark
+    public List<Property> indexFuzzy() {
+        SearchHits hits = propertySearchIndex.search(propertyFuzzyIndex.expand(MISSPELT), 0, PAGE.getPageSize());
+        return propertyRepository.findAllById(hits.getIds());
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PropertyFuzzySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PropertyGeoIndex against a brute-force scan of the same points, including
+ * the poles and boxes crossing the antimeridian.
+ */
+class PropertyGeoIndexTest {
+
+    private final Random random = new Random(42);
+    private final PropertyGeoIndex index = new PropertyGeoIndex();
+    private final List<Property> properties = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 3000; id++) {
+            // Half the points clustered around a few cities so cells hold several each
+            double lat = id % 2 == 0 ? -90 + random.nextDouble() * 180 : 40 + random.nextGaussian();
+            double lng = id % 2 == 0 ? -180 + random.nextDouble() * 360 : -74 + random.nextGaussian();
+            properties.add(property(id, lat, lng));
+        }
+        properties.add(property(3001L, 90.0, 0.0));
+        properties.add(property(3002L, -90.0, 180.0));
+        properties.add(property(3003L, 10.0, 179.95));
+        properties.add(property(3004L, 10.0, -179.95));
+        properties.add(property(3005L, 10.0, null));
+        index.rebuild(properties);
+    }
+
+    @Test
+    void nearMatchesABruteForceScan() {
+        for (int i = 0; i < 300; i++) {
+            double lat = i % 10 == 0 ? 89 + random.nextDouble() : -90 + random.nextDouble() * 180;
+            double lng = -180 + random.nextDouble() * 360;
+            double radiusKm = 1 + random.nextDouble() * (PropertyGeoIndex.MAX_RADIUS_KM - 1);
+
+            SearchHits hits = index.near(lat, lng, radiusKm, id -> id % 3 != 0, 0, Integer.MAX_VALUE);
+
+            List<Long> expected = sortedByDistance(lat, lng, properties.stream()
+                    .filter(p -> p.getLatitude() != null && p.getLongitude() != null && p.getId() % 3 != 0)
+                    .filter(p -> distance(lat, lng, p) <= radiusKm)
+                    .collect(Collectors.toList()));
+            assertEquals(expected, hits.getIds(), "near " + lat + "," + lng + " r=" + radiusKm);
+            assertEquals(expected.size(), hits.getTotal());
+        }
+    }
+
+    @Test
+    void withinMatchesABruteForceScan() {
+        for (int i = 0; i < 300; i++) {
+            double minLat = -90 + random.nextDouble() * 170;
+            double maxLat = Math.min(90, minLat + random.nextDouble() * 20);
+            double minLng = -180 + random.nextDouble() * 360;
+            // Every fourth box crosses the antimeridian
+            double maxLng = i % 4 == 0
+                    ? PropertyGeoIndex.normalizeLng(minLng + (180 - minLng) + random.nextDouble() * 20)
+                    : Math.min(180, minLng + random.nextDouble() * 20);
+            assertWithinMatches(minLat, minLng, maxLat, maxLng);
+        }
+    }
+
+    @Test
+    void wholeWorldBoxVisitsOnlyOccupiedCells() {
+        assertWithinMatches(-90, -180, 90, 180);
+        assertEquals(3004, index.within(-90, -180, 90, 180, id -> true, 0, 1).getTotal());
+    }
+
+    @Test
+    void boxAcrossTheAntimeridianFindsBothSides() {
+        SearchHits hits = index.within(9.9, 179.9, 10.1, -179.9, id -> id > 3000, 0, 10);
+        assertEquals(List.of(3003L, 3004L), hits.getIds().stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void polesAndTheDateLineAreIndexed() {
+        assertEquals(List.of(3001L), index.near(90, 123, 1, id -> id > 3000, 0, 10).getIds());
+        assertEquals(List.of(3002L), index.near(-90, -180, 1, id -> id > 3000, 0, 10).getIds());
+        // 179.95 and -179.95 are 11 km apart across the date line
+        assertEquals(List.of(3003L, 3004L), index.near(10, 179.95, 12, id -> id > 3000, 0, 10).getIds());
+    }
+
+    @Test
+    void upsertMovesAPointAndRemoveDropsIt() {
+        index.upsert(property(3003L, -33.87, 151.21));
+        assertEquals(List.of(3003L), index.near(-33.87, 151.21, 1, id -> id > 3000, 0, 10).getIds());
+        assertEquals(List.of(3004L), index.near(10, 179.95, 12, id -> id > 3000, 0, 10).getIds());
+
+        index.remove(3003L);
+        assertEquals(List.of(), index.near(-33.87, 151.21, 1, id -> id > 3000, 0, 10).getIds());
+
+        // Losing its coordinates takes a listing out of the index
+        index.upsert(property(3004L, null, null));
+        assertEquals(List.of(), index.near(10, 179.95, 12, id -> id > 3000, 0, 10).getIds());
+    }
+
+    @Test
+    void pagesAreSlicesOfTheFullOrdering() {
+        List<Long> all = index.near(40, -74, 100, id -> true, 0, Integer.MAX_VALUE).getIds();
+        SearchHits page = index.near(40, -74, 100, id -> true, 20, 10);
+        assertEquals(all.subList(20, 30), page.getIds());
+        assertEquals(all.size(), page.getTotal());
+    }
+
+    private void assertWithinMatches(double minLat, double minLng, double maxLat, double maxLng) {
+        double width = minLng <= maxLng ? maxLng - minLng : maxLng + 360 - minLng;
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLng = PropertyGeoIndex.normalizeLng(minLng + width / 2);
+
+        SearchHits hits = index.within(minLat, minLng, maxLat, maxLng, id -> true, 0, Integer.MAX_VALUE);
+
+        List<Long> expected = sortedByDistance(centerLat, centerLng, properties.stream()
+                .filter(p -> p.getLatitude() != null && p.getLongitude() != null)
+                .filter(p -> p.getLatitude() >= minLat && p.getLatitude() <= maxLat)
+                .filter(p -> {
+                    double lng = PropertyGeoIndex.normalizeLng(p.getLongitude());
+                    return minLng <= maxLng ? lng >= minLng && lng <= maxLng : lng >= minLng || lng <= maxLng;
+                })
+                .collect(Collectors.toList()));
+        assertEquals(expected, hits.getIds(), "within " + minLat + "," + minLng + " " + maxLat + "," + maxLng);
+    }
+
+    private static List<Long> sortedByDistance(double lat, double lng, List<Property> matches) {
+        return matches.stream()
+                .sorted(Comparator.comparingDouble((Property p) -> distance(lat, lng, p)).thenComparing(Property::getId))
+                .map(Property::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static double distance(double lat, double lng, Property property) {
+        return PropertyGeoIndex.distanceKm(lat, lng, property.getLatitude(),
+                PropertyGeoIndex.normalizeLng(property.getLongitude()));
+    }
+
+    private static Property property(Long id, Double lat, Double lng) {
+        Property property = new Property();
+        property.setId(id);
+        property.setLatitude(lat);
+        property.setLongitude(lng);
+        return property;
+    }
+}
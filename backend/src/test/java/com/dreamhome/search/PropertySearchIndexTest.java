@@ -0,0 +1,190 @@
+package com.dreamhome.search;
+
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PropertySearchIndex against a direct evaluation of its documented rules:
+ * every clause must match, terms of three or more characters also match as
+ * prefixes, scores are field-weighted term frequencies with exact matches
+ * doubled, and ties go to the newest id.
+ */
+class PropertySearchIndexTest {
+
+    private static final String[] WORDS = {
+            "spring", "springfield", "springs", "oak", "oakland", "oaks", "lake", "lakeside", "lakes",
+            "house", "houses", "home", "ho", "a1", "cafe", "villa", "view", "river", "riverside", "main"
+    };
+
+    private final Random random = new Random(7);
+
+    @Test
+    void searchMatchesTheReferenceModel() {
+        Map<Long, Property> listings = randomListings(400);
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomQuery();
+            assertSearch(index, listings, query);
+        }
+    }
+
+    @Test
+    void upsertAndRemoveMatchARebuild() {
+        Map<Long, Property> listings = randomListings(300);
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 400; i++) {
+            long id = 1 + random.nextInt(350);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                index.upsert(property);
+                listings.put(id, property);
+            }
+        }
+        assertEquals(listings.size(), index.size());
+
+        PropertySearchIndex rebuilt = new PropertySearchIndex();
+        rebuilt.rebuild(listings.values());
+        for (int i = 0; i < 300; i++) {
+            String query = randomQuery();
+            SearchHits expected = rebuilt.search(query, 0, Integer.MAX_VALUE);
+            SearchHits actual = index.search(query, 0, Integer.MAX_VALUE);
+            assertEquals(expected.getIds(), actual.getIds(), query);
+            assertEquals(expected.getTotal(), actual.getTotal(), query);
+            assertSearch(index, listings, query);
+        }
+    }
+
+    @Test
+    void correctionsMatchOnlyWholeTokens() {
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.rebuild(List.of(
+                listing(1L, "Lake house", "", "", "Springfield"),
+                listing(2L, "Lakeside villa", "", "", "Oakland"),
+                listing(3L, "Riverside home", "", "", "Oakland")));
+
+        // "lakx" matches nothing itself; its correction "lake" is exact only, so "lakeside" stays out
+        assertEquals(List.of(1L), index.search(List.of(List.of("lakx", "lake")), 0, 10).getIds());
+        // The typed term keeps prefix matching and the exact boost; a correction scores unboosted,
+        // so "lakeside" (prefix) and "riverside" (correction) tie and the newer listing goes first
+        assertEquals(List.of(1L, 3L, 2L), index.search(List.of(List.of("lake", "riverside")), 0, 10).getIds());
+    }
+
+    @Test
+    void shortTermsMatchOnlyWholeTokensAndAccentsAreFolded() {
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.rebuild(List.of(
+                listing(1L, "Café on the corner", "", "", ""),
+                listing(2L, "Home office", "", "", ""),
+                listing(3L, "Ho ho ho", "", "", "")));
+
+        assertEquals(List.of(1L), index.search("CAFE", 0, 10).getIds());
+        assertEquals(List.of(3L), index.search("ho", 0, 10).getIds());
+        assertEquals(List.of(2L), index.search("hom", 0, 10).getIds());
+        assertEquals(List.of(), index.search("", 0, 10).getIds());
+    }
+
+    @Test
+    void pagesAreSlicesOfTheFullRanking() {
+        Map<Long, Property> listings = randomListings(400);
+        PropertySearchIndex index = new PropertySearchIndex();
+        index.rebuild(listings.values());
+
+        List<Long> all = index.search("spr", 0, Integer.MAX_VALUE).getIds();
+        SearchHits page = index.search("spr", 10, 5);
+        assertEquals(all.subList(10, 15), page.getIds());
+        assertEquals(all.size(), page.getTotal());
+        assertEquals(List.of(), index.search("spr", all.size(), 5).getIds());
+    }
+
+    private static void assertSearch(PropertySearchIndex index, Map<Long, Property> listings, String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        List<long[]> scored = new ArrayList<>();
+        for (Property property : listings.values()) {
+            Map<String, Integer> weights = termWeights(property);
+            long score = 0;
+            boolean all = !terms.isEmpty();
+            for (String term : terms) {
+                int best = 0;
+                for (Map.Entry<String, Integer> token : weights.entrySet()) {
+                    if (token.getKey().equals(term)) {
+                        best = Math.max(best, token.getValue() * 2);
+                    } else if (term.length() >= PropertySearchIndex.MIN_PREFIX_LENGTH && token.getKey().startsWith(term)) {
+                        best = Math.max(best, token.getValue());
+                    }
+                }
+                all &= best > 0;
+                score += best;
+            }
+            if (all) {
+                scored.add(new long[]{score, property.getId()});
+            }
+        }
+        scored.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(b[1], a[1]));
+        List<Long> expected = scored.stream().map(entry -> entry[1]).collect(Collectors.toList());
+
+        SearchHits hits = index.search(query, 0, Integer.MAX_VALUE);
+        assertEquals(expected, hits.getIds(), query);
+        assertEquals(expected.size(), hits.getTotal(), query);
+    }
+
+    private static Map<String, Integer> termWeights(Property property) {
+        Map<String, Integer> weights = new HashMap<>();
+        Tokenizer.tokenize(property.getTitle()).forEach(token -> weights.merge(token, 4, Integer::sum));
+        Tokenizer.tokenize(property.getCity()).forEach(token -> weights.merge(token, 3, Integer::sum));
+        Tokenizer.tokenize(property.getAddress()).forEach(token -> weights.merge(token, 2, Integer::sum));
+        Tokenizer.tokenize(property.getDescription()).forEach(token -> weights.merge(token, 1, Integer::sum));
+        return weights;
+    }
+
+    private Map<Long, Property> randomListings(int count) {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= count; id++) {
+            listings.put(id, randomListing(id));
+        }
+        return listings;
+    }
+
+    private Property randomListing(long id) {
+        return listing(id, words(1 + random.nextInt(4)), words(random.nextInt(8)), words(random.nextInt(3)),
+                words(random.nextInt(2)));
+    }
+
+    private String randomQuery() {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0, terms = 1 + random.nextInt(3); i < terms; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            query.append(word, 0, 1 + random.nextInt(word.length())).append(random.nextBoolean() ? " " : ", ");
+        }
+        return query.toString();
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static Property listing(Long id, String title, String description, String address, String city) {
+        Property property = new Property();
+        property.setId(id);
+        property.setTitle(title);
+        property.setDescription(description);
+        property.setAddress(address);
+        property.setCity(city);
+        return property;
+    }
+}
@@ -0,0 +1,149 @@
+package com.dreamhome.search;
+
+import com.dreamhome.dto.SuggestionDto;
+import com.dreamhome.entity.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * PropertySuggestIndex against counting the listings behind each value:
+ * completions of a prefix are the distinct cities, states, zip codes and
+ * titles starting with it, most listings first, then city, state, zip,
+ * title, then alphabetical. Queries are interleaved with mutations so a
+ * stale memoized prefix would show up as a mismatch.
+ */
+class PropertySuggestIndexTest {
+
+    private static final String[] CITIES = {"Springfield", "Spring Valley", "Springs", "Oakland", "Oak Park", "Austin"};
+    private static final String[] STATES = {"SP", "OR", "OK", "AZ", "TX"};
+    private static final String[] ZIPS = {"10001", "10002", "10110", "94601", "94602"};
+    private static final String[] TITLES = {"Spring Cottage", "Oak Villa", "Sunny loft", "10 Downing", "Austin condo"};
+    private static final String[] PREFIXES = {"s", "sp", "spr", "spring", "springf", "o", "oak", "ok", "a", "au",
+            "1", "10", "100", "1000", "9", "94", "su", "x", "  Spr "};
+
+    private final Random random = new Random(3);
+
+    @Test
+    void suggestionsMatchTheReferenceModel() {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            listings.put(id, randomListing(id));
+        }
+        PropertySuggestIndex index = new PropertySuggestIndex();
+        index.rebuild(listings.values());
+
+        for (String prefix : PREFIXES) {
+            assertSuggestions(index, listings, prefix, PropertySuggestIndex.MAX_SUGGESTIONS);
+            assertSuggestions(index, listings, prefix, 3);
+        }
+    }
+
+    @Test
+    void mutationsEvictMemoizedPrefixes() {
+        Map<Long, Property> listings = new HashMap<>();
+        for (long id = 1; id <= 100; id++) {
+            listings.put(id, randomListing(id));
+        }
+        PropertySuggestIndex index = new PropertySuggestIndex();
+        index.rebuild(listings.values());
+
+        for (int i = 0; i < 1000; i++) {
+            long id = 1 + random.nextInt(120);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                listings.remove(id);
+            } else {
+                Property property = randomListing(id);
+                index.upsert(property);
+                listings.put(id, property);
+            }
+            assertSuggestions(index, listings, PREFIXES[random.nextInt(PREFIXES.length)], 5);
+        }
+    }
+
+    @Test
+    void lastListingLeavingDropsTheSuggestion() {
+        PropertySuggestIndex index = new PropertySuggestIndex();
+        index.rebuild(List.of(listing(1L, "Springfield", null, null, null), listing(2L, "Springfield", null, null, null)));
+        assertEquals(2, index.suggest("spr", 5).get(0).getCount());
+
+        index.remove(1L);
+        assertEquals(1, index.suggest("spr", 5).get(0).getCount());
+        index.upsert(listing(2L, "Oakland", null, null, null));
+        assertEquals(List.of(), index.suggest("spr", 5));
+        assertEquals("Oakland", index.suggest("oak", 5).get(0).getText());
+    }
+
+    @Test
+    void prefixesAreAccentAndCaseInsensitive() {
+        PropertySuggestIndex index = new PropertySuggestIndex();
+        index.rebuild(List.of(listing(1L, "São Paulo", "SP", "01000", "Loft in São Paulo")));
+
+        assertEquals(List.of("São Paulo"), texts(index.suggest("SAO", 5)));
+        // Equal weights: city before state
+        assertEquals(List.of("São Paulo", "SP"), texts(index.suggest("s", 5)));
+        assertEquals(List.of("Loft in São Paulo"), texts(index.suggest("LOFT IN SAO", 5)));
+        assertEquals(List.of(), index.suggest("   ", 5));
+        assertEquals(List.of(), index.suggest("sao", 0));
+    }
+
+    private static void assertSuggestions(PropertySuggestIndex index, Map<Long, Property> listings, String prefix,
+                                          int limit) {
+        String normalized = Tokenizer.normalize(prefix).trim();
+        Map<List<Object>, Integer> counts = new HashMap<>();
+        for (Property property : listings.values()) {
+            count(counts, PropertySuggestIndex.Kind.CITY, property.getCity(), normalized);
+            count(counts, PropertySuggestIndex.Kind.STATE, property.getState(), normalized);
+            count(counts, PropertySuggestIndex.Kind.ZIP, property.getZipCode(), normalized);
+            count(counts, PropertySuggestIndex.Kind.TITLE, property.getTitle(), normalized);
+        }
+        List<String> expected = counts.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<List<Object>, Integer> e) -> -e.getValue())
+                        .thenComparing(e -> ((PropertySuggestIndex.Kind) e.getKey().get(0)).ordinal())
+                        .thenComparing(e -> (String) e.getKey().get(1)))
+                .limit(Math.min(limit, PropertySuggestIndex.MAX_SUGGESTIONS))
+                .map(e -> e.getKey().get(0) + ":" + e.getKey().get(1) + "=" + e.getValue())
+                .collect(Collectors.toList());
+
+        List<String> actual = index.suggest(prefix, limit).stream()
+                .map(s -> s.getType() + ":" + s.getText() + "=" + s.getCount())
+                .collect(Collectors.toList());
+        assertEquals(expected, actual, "prefix '" + prefix + "' limit " + limit);
+    }
+
+    private static void count(Map<List<Object>, Integer> counts, PropertySuggestIndex.Kind kind, String value,
+                              String prefix) {
+        if (value != null && !value.isBlank() && Tokenizer.normalize(value).trim().startsWith(prefix)) {
+            counts.merge(List.of(kind, value.trim()), 1, Integer::sum);
+        }
+    }
+
+    private static List<String> texts(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::getText).collect(Collectors.toList());
+    }
+
+    private Property randomListing(long id) {
+        return listing(id, pick(CITIES), pick(STATES), pick(ZIPS), pick(TITLES));
+    }
+
+    // A value, now and then padded or missing
+    private String pick(String[] values) {
+        int roll = random.nextInt(10);
+        String value = values[random.nextInt(values.length)];
+        return roll == 0 ? null : roll == 1 ? "  " + value + " " : value;
+    }
+
+    private static Property listing(Long id, String city, String state, String zipCode, String title) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCity(city);
+        property.setState(state);
+        property.setZipCode(zipCode);
+        property.setTitle(title);
+        return property;
+    }
+}
@@ -0,0 +1,141 @@
+package com.dreamhome.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The password encoder behind the real login endpoint, on H2, with one
+ * hashing thread and one queue slot: a saturated pool answers 429 with
+ * Retry-After, and a login re-hashes a password stored at another BCrypt
+ * cost at the configured one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-hashing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "rate-limit.enabled=false",
+        "security.password-hashing.strength=5",
+        "security.password-hashing.threads=1",
+        "security.password-hashing.queue-capacity=1",
+        "security.password-hashing.max-wait=PT10S"
+})
+@AutoConfigureMockMvc
+class BoundedPasswordEncoderLoginTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void saturatedHashingAnswersTooManyRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running;
+        CompletableFuture<String> queued;
+        try {
+            // The second hash is only submitted once the first holds the thread, or it could find the queue full
+            running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(heldPassword(release)));
+            awaitGauge("password.hash.active", 1);
+            queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(heldPassword(release)));
+            awaitGauge("password.hash.queue", 1);
+
+            login("admin", "admin123")
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+        } finally {
+            release.countDown();
+        }
+        // Once the held hashes finish, logins are served again
+        running.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+        login("admin", "admin123").andExpect(status().isOk());
+    }
+
+    @Test
+    void loginRehashesAPasswordStoredAtAnotherCost() throws Exception {
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"oldhash\",\"email\":\"oldhash@example.com\","
+                                + "\"password\":\"secret1\",\"firstName\":\"Old\",\"lastName\":\"Hash\"}"))
+                .andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = 'oldhash'",
+                new BCryptPasswordEncoder(4).encode("secret1"));
+
+        login("oldhash", "secret1").andExpect(status().isOk());
+
+        String stored = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = 'oldhash'", String.class);
+        assertTrue(stored.startsWith("$2a$05$"), stored);
+        login("oldhash", "secret1").andExpect(status().isOk());
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get(name).gauge().value() != value) {
+            assertTrue(System.nanoTime() < deadline, name + " never reached " + value);
+            Thread.sleep(5);
+        }
+    }
+
+    // Blocks the hashing thread in toString() until released
+    private static CharSequence heldPassword(CountDownLatch release) {
+        return new CharSequence() {
+            @Override
+            public int length() { return toString().length(); }
+
+            @Override
+            public char charAt(int index) { return toString().charAt(index); }
+
+            @Override
+            public CharSequence subSequence(int start, int end) { return toString().subSequence(start, end); }
+
+            @Override
+            public String toString() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "held";
+            }
+        };
+    }
+}
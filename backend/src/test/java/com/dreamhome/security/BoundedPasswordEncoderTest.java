@@ -0,0 +1,107 @@
+package com.dreamhome.security;
+
+import com.dreamhome.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoundedPasswordEncoder with one hashing thread and one queue slot. Hashes
+ * are held on the pool by a password whose characters are not available
+ * until the test releases them, so saturation does not depend on timing.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void callsBeyondThreadsAndQueueAreRejectedAtOnce() throws Exception {
+        encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(30), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode(heldPassword()));
+        awaitGauge("password.hash.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode(heldPassword()));
+        awaitGauge("password.hash.queue", 1);
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("secret", "$2a$04$unused"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejection must not wait");
+        assertEquals(1.0, meterRegistry.counter("password.hash.rejected").count());
+
+        // Once the held hashes finish, the pool serves calls again
+        release.countDown();
+        assertTrue(running.get(10, TimeUnit.SECONDS).startsWith("$2a$04$"));
+        assertTrue(queued.get(10, TimeUnit.SECONDS).startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", encoder.encode("secret")));
+    }
+
+    @Test
+    void hashNotDoneWithinMaxWaitIsRejected() {
+        encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofMillis(100), meterRegistry);
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode(heldPassword()));
+        assertEquals(1.0, meterRegistry.counter("password.hash.rejected").count());
+    }
+
+    @Test
+    void hashesWithAnotherCostAskForAnUpgrade() {
+        encoder = new BoundedPasswordEncoder(5, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertFalse(encoder.upgradeEncoding("{noop}secret"));
+        assertFalse(encoder.upgradeEncoding(null));
+        // Hashes of either cost still verify
+        assertTrue(encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    // Blocks the hashing thread in toString() until the test releases it
+    private CharSequence heldPassword() {
+        return new CharSequence() {
+            @Override
+            public int length() { return toString().length(); }
+
+            @Override
+            public char charAt(int index) { return toString().charAt(index); }
+
+            @Override
+            public CharSequence subSequence(int start, int end) { return toString().subSequence(start, end); }
+
+            @Override
+            public String toString() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "secret";
+            }
+        };
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get(name).gauge().value() != value) {
+            assertTrue(System.nanoTime() < deadline, name + " never reached " + value);
+            Thread.sleep(5);
+        }
+    }
+}
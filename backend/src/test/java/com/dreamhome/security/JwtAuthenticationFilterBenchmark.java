@@ -0,0 +1,147 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.Role;
+import com.dreamhome.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter with a valid bearer token:
+ * <ul>
+ *   <li>{@code before}: the previous JwtUtil, which rebuilt the key and the
+ *   parser for every call and parsed the token three times per request,
+ *   with the user lookup as an in-memory stub</li>
+ *   <li>{@code parseOnce}: shared key and parser, one parse per request,
+ *   verified-token cache disabled, user and revocation taken from memory</li>
+ *   <li>{@code verifiedCacheHit}: a repeated token served from the cache</li>
+ * </ul>
+ *
+ * Not run by the test phase. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.dreamhome.security.JwtAuthenticationFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "dreamhome-secret-key-for-jwt-token-generation-2024";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private UserDetails user;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter parseOnceFilter;
+    private JwtAuthenticationFilter cachingFilter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        user = User.withUsername("benchmark").password("unused").roles("USER").build();
+        userDetailsService = username -> user;
+
+        JwtUtil cachingJwtUtil = jwtUtil(10_000);
+        parseOnceFilter = filter(jwtUtil(0));
+        cachingFilter = filter(cachingJwtUtil);
+
+        token = cachingJwtUtil.generateToken(user, Map.of("userId", 1L, "role", Role.USER.name()));
+        request = new MockHttpServletRequest("GET", "/api/inquiries/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication before() throws Exception {
+        SecurityContextHolder.clearContext();
+        String username = legacyParse(token).getSubject();
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            boolean valid = legacyParse(token).getSubject().equals(userDetails.getUsername())
+                    && !legacyParse(token).getExpiration().before(new Date());
+            if (valid) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        NO_OP_CHAIN.doFilter(request, response);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication parseOnce() throws Exception {
+        return run(parseOnceFilter);
+    }
+
+    @Benchmark
+    public Authentication verifiedCacheHit() throws Exception {
+        return run(cachingFilter);
+    }
+
+    private Authentication run(JwtAuthenticationFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // What every extractUsername/extractExpiration call used to do
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtUtil jwtUtil(long verifiedCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private JwtAuthenticationFilter filter(JwtUtil jwtUtil) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userAccessRegistry", new UserAccessRegistry());
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", new TokenRevocationList());
+        return filter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
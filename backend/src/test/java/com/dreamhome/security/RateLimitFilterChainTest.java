@@ -0,0 +1,106 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.User;
+import com.dreamhome.repository.UserRepository;
+import com.dreamhome.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RateLimitFilter inside the real security chain, on H2. The search route
+ * allows a burst of 2 and refills one request per minute, so the third
+ * request from the same client waits about 60 seconds. Each test uses its
+ * own client addresses, since buckets outlive a test method.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rate-limit;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "rate-limit.routes.search.capacity=2",
+        "rate-limit.routes.search.per-minute=1"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterChainTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void exhaustedClientGets429WithRetryAfter() throws Exception {
+        mockMvc.perform(search("10.1.0.1")).andExpect(status().isOk());
+        mockMvc.perform(search("10.1.0.1")).andExpect(status().isOk());
+
+        MvcResult rejected = mockMvc.perform(search("10.1.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"))
+                .andReturn();
+        long retryAfter = Long.parseLong(rejected.getResponse().getHeader("Retry-After"));
+        assertTrue(retryAfter > 55 && retryAfter <= 60, "Retry-After " + retryAfter);
+    }
+
+    @Test
+    void clientsAreLimitedIndependently() throws Exception {
+        mockMvc.perform(search("10.2.0.1")).andExpect(status().isOk());
+        mockMvc.perform(search("10.2.0.1")).andExpect(status().isOk());
+        mockMvc.perform(search("10.2.0.1")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(search("10.2.0.2")).andExpect(status().isOk());
+    }
+
+    @Test
+    void unlistedPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MvcResult result = mockMvc.perform(get("/properties/featured").with(remoteAddr("10.3.0.1"))).andReturn();
+            assertEquals(200, result.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    void signedInUserIsLimitedAcrossAddresses() throws Exception {
+        User admin = userRepository.findByNaturalId("admin").orElseThrow();
+        String token = jwtUtil.generateToken(admin, Map.of("userId", admin.getId(), "role", admin.getRole().name()));
+
+        mockMvc.perform(search("10.4.0.1").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mockMvc.perform(search("10.4.0.2").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mockMvc.perform(search("10.4.0.3").header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests());
+
+        // The address itself still has its own allowance
+        mockMvc.perform(search("10.4.0.3")).andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder search(String clientAddress) {
+        return get("/properties/search").param("keyword", "house").with(remoteAddr(clientAddress));
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
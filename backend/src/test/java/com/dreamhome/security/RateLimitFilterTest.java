@@ -0,0 +1,122 @@
+package com.dreamhome.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The GCRA bucket behind RateLimitFilter, driven by a synthetic clock:
+ * capacity 3, refilled at one request per second.
+ */
+class RateLimitFilterTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int CAPACITY = 3;
+    private static final long BURST_TOLERANCE = INTERVAL * CAPACITY;
+
+    private static final long START = 1_000_000_000_000L;
+
+    @Test
+    void newBucketAllowsItsWholeCapacityAtOnce() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.acquire(START, INTERVAL, BURST_TOLERANCE));
+        }
+        // The next request becomes possible one interval later
+        assertEquals(INTERVAL, bucket.acquire(START, INTERVAL, BURST_TOLERANCE));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeCapacity() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.acquire(START, INTERVAL, BURST_TOLERANCE);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(INTERVAL, bucket.acquire(START, INTERVAL, BURST_TOLERANCE));
+        }
+        assertEquals(0, bucket.acquire(START + INTERVAL, INTERVAL, BURST_TOLERANCE));
+    }
+
+    @Test
+    void refillsOneRequestPerInterval() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.acquire(START, INTERVAL, BURST_TOLERANCE);
+        }
+
+        long halfInterval = START + INTERVAL / 2;
+        assertEquals(INTERVAL / 2, bucket.acquire(halfInterval, INTERVAL, BURST_TOLERANCE));
+
+        long twoIntervals = START + 2 * INTERVAL;
+        assertEquals(0, bucket.acquire(twoIntervals, INTERVAL, BURST_TOLERANCE));
+        assertEquals(0, bucket.acquire(twoIntervals, INTERVAL, BURST_TOLERANCE));
+        assertTrue(bucket.acquire(twoIntervals, INTERVAL, BURST_TOLERANCE) > 0);
+    }
+
+    @Test
+    void idleTimeNeverBuildsUpMoreThanTheCapacity() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+        long muchLater = START + TimeUnit.HOURS.toNanos(1);
+
+        int allowed = 0;
+        while (bucket.acquire(muchLater, INTERVAL, BURST_TOLERANCE) == 0) {
+            allowed++;
+        }
+        assertEquals(CAPACITY, allowed);
+    }
+
+    @Test
+    void isFullOnceTheBurstHasBeenPaidBack() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+        assertTrue(bucket.isFull(START));
+
+        bucket.acquire(START, INTERVAL, BURST_TOLERANCE);
+        bucket.acquire(START, INTERVAL, BURST_TOLERANCE);
+        assertFalse(bucket.isFull(START + INTERVAL));
+        assertTrue(bucket.isFull(START + 2 * INTERVAL));
+    }
+
+    @Test
+    void contendedBucketAdmitsExactlyItsCapacity() throws Exception {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(START);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.acquire(START, INTERVAL, BURST_TOLERANCE) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(CAPACITY, allowed.get());
+    }
+}
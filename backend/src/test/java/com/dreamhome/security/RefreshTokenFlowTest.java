@@ -0,0 +1,195 @@
+package com.dreamhome.security;
+
+import com.dreamhome.util.JwtUtil;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh-token rotation, reuse detection and logout through the real
+ * controllers and security chain, on H2. Access tokens are checked against
+ * an admin-only endpoint, so a revoked one is answered with 401. A spent
+ * token counts as reused only after the five-second grace for concurrent
+ * tabs, so reuse tests first age it past that.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-tokens;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class RefreshTokenFlowTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void refreshIssuesANewPairAndSpendsTheOldToken() throws Exception {
+        Session login = login();
+
+        Session refreshed = Session.from(refresh(login.refreshToken()).andExpect(status().isOk()));
+        assertNotEquals(login.refreshToken(), refreshed.refreshToken());
+        assertNotEquals(login.accessToken(), refreshed.accessToken());
+
+        // Rotation alone revokes nothing: both access tokens stay valid until they expire
+        adminPage(refreshed.accessToken()).andExpect(status().isOk());
+        adminPage(login.accessToken()).andExpect(status().isOk());
+
+        refresh(refreshed.refreshToken()).andExpect(status().isOk());
+    }
+
+    @Test
+    void reusingASpentTokenRevokesTheWholeFamily() throws Exception {
+        Session login = login();
+        Session refreshed = Session.from(refresh(login.refreshToken()).andExpect(status().isOk()));
+        Session otherDevice = login();
+        spentLongAgo(login.refreshToken());
+
+        refresh(login.refreshToken())
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("INVALID_REFRESH_TOKEN"));
+
+        // Every token of the family is dead, including the one the thief did not hold
+        refresh(refreshed.refreshToken()).andExpect(status().isUnauthorized());
+        adminPage(login.accessToken()).andExpect(status().isUnauthorized());
+        adminPage(refreshed.accessToken()).andExpect(status().isUnauthorized());
+
+        // Other logins of the same user are separate families
+        adminPage(otherDevice.accessToken()).andExpect(status().isOk());
+        refresh(otherDevice.refreshToken()).andExpect(status().isOk());
+    }
+
+    @Test
+    void secondTabRefreshingWithTheSameTokenGetsConflictAndKeepsTheSession() throws Exception {
+        Session login = login();
+        Session firstTab = Session.from(refresh(login.refreshToken()).andExpect(status().isOk()));
+
+        refresh(login.refreshToken())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("REFRESH_TOKEN_ROTATED"));
+
+        // Nothing was revoked; the second tab carries on with the first tab's pair
+        adminPage(login.accessToken()).andExpect(status().isOk());
+        adminPage(firstTab.accessToken()).andExpect(status().isOk());
+        refresh(firstTab.refreshToken()).andExpect(status().isOk());
+    }
+
+    @Test
+    void graceDoesNotReviveALoggedOutSession() throws Exception {
+        Session login = login();
+        Session refreshed = Session.from(refresh(login.refreshToken()).andExpect(status().isOk()));
+        mockMvc.perform(post("/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshRequest(refreshed.refreshToken())))
+                .andExpect(status().isNoContent());
+
+        // Spent within the grace, but no live successor is left to hand over
+        refresh(login.refreshToken()).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutRevokesTheSessionAndItsAccessToken() throws Exception {
+        Session login = login();
+        adminPage(login.accessToken()).andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshRequest(login.refreshToken())))
+                .andExpect(status().isNoContent());
+
+        adminPage(login.accessToken()).andExpect(status().isUnauthorized());
+        refresh(login.refreshToken()).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void deletingAUserEndsTheirSessions() throws Exception {
+        String body = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"leaving\",\"email\":\"leaving@example.com\","
+                                + "\"password\":\"secret1\",\"firstName\":\"Lee\",\"lastName\":\"Ving\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Session user = new Session(JsonPath.read(body, "$.token"), JsonPath.read(body, "$.refreshToken"));
+        Number userId = JsonPath.read(body, "$.user.id");
+        String accessTokenId = jdbcTemplate.queryForObject(
+                "SELECT access_token_id FROM refresh_tokens WHERE token_hash = ?", String.class,
+                JwtUtil.sha256Hex(user.refreshToken()));
+
+        // Signed in: refused for the role, not for the token
+        adminPage(user.accessToken()).andExpect(result -> assertNotEquals(401, result.getResponse().getStatus()));
+
+        mockMvc.perform(delete("/admin/users/" + userId).header("Authorization", "Bearer " + login().accessToken()))
+                .andExpect(status().isOk());
+
+        adminPage(user.accessToken()).andExpect(status().isUnauthorized());
+        refresh(user.refreshToken()).andExpect(status().isUnauthorized());
+        // Recorded for the other instances too, not only dropped from this one's user registry
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM revoked_tokens WHERE token_id = ?", Integer.class, accessTokenId));
+    }
+
+    @Test
+    void unknownRefreshTokenIsRejected() throws Exception {
+        refresh("not-a-refresh-token")
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("INVALID_REFRESH_TOKEN"));
+    }
+
+    private Session login() throws Exception {
+        return Session.from(mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshRequest(refreshToken)));
+    }
+
+    private ResultActions adminPage(String accessToken) throws Exception {
+        return mockMvc.perform(get("/properties/admin/all").header("Authorization", "Bearer " + accessToken));
+    }
+
+    private void spentLongAgo(String refreshToken) {
+        jdbcTemplate.update("UPDATE refresh_tokens SET revoked_at = ? WHERE token_hash = ?",
+                LocalDateTime.now().minusMinutes(1), JwtUtil.sha256Hex(refreshToken));
+    }
+
+    private static String refreshRequest(String refreshToken) {
+        return "{\"refreshToken\":\"" + refreshToken + "\"}";
+    }
+
+    private record Session(String accessToken, String refreshToken) {
+
+        static Session from(ResultActions result) throws Exception {
+            String body = result.andReturn().getResponse().getContentAsString();
+            return new Session(JsonPath.read(body, "$.token"), JsonPath.read(body, "$.refreshToken"));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dreamhome.security;
+
+import com.dreamhome.entity.RevokedToken;
+import com.dreamhome.repository.RevokedTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TokenRevocationList against a mocked revoked_tokens table: what a new
+ * instance knows after startup, and what later refreshes add and drop.
+ */
+class TokenRevocationListTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final EventListenerRegistry listenerRegistry = mock(EventListenerRegistry.class);
+    private final TokenRevocationList list = new TokenRevocationList();
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        ServiceRegistryImplementor serviceRegistry = mock(ServiceRegistryImplementor.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.getService(EventListenerRegistry.class)).thenReturn(listenerRegistry);
+
+        ReflectionTestUtils.setField(list, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(list, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(list, "expectedSize", 4);
+    }
+
+    @Test
+    void startupRebuildsTheListFromTheTable() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(revoked("a"), revoked("b")));
+
+        list.init();
+
+        assertTrue(list.isRevoked("a"));
+        assertTrue(list.isRevoked("b"));
+        assertFalse(list.isRevoked("c"));
+        verify(listenerRegistry).appendListeners(EventType.POST_COMMIT_INSERT, list);
+    }
+
+    @Test
+    void refreshAddsRevocationsFromOtherInstancesBeyondTheExpectedSize() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        list.init();
+
+        List<RevokedToken> later = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            later.add(revoked("token-" + i));
+        }
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(later);
+        list.refresh();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(list.isRevoked("token-" + i));
+        }
+        assertFalse(list.isRevoked("token-50"));
+    }
+
+    @Test
+    void refreshDropsRevocationsOfExpiredTokens() {
+        RevokedToken expired = new RevokedToken("old", LocalDateTime.now().minusSeconds(1), LocalDateTime.now().minusMinutes(20));
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(expired, revoked("live")));
+        list.init();
+        assertTrue(list.isRevoked("old"));
+
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of());
+        list.refresh();
+
+        assertFalse(list.isRevoked("old"));
+        assertTrue(list.isRevoked("live"));
+    }
+
+    private static RevokedToken revoked(String tokenId) {
+        return new RevokedToken(tokenId, LocalDateTime.now().plusMinutes(15), LocalDateTime.now());
+    }
+}
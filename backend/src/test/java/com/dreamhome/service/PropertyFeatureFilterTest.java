@@ -0,0 +1,110 @@
+package com.dreamhome.service;
+
+import com.dreamhome.dto.PropertyCardDto;
+import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.entity.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Feature filters on H2, through the attribute store and through the SQL
+ * fallback used by cursor pages. Case, whitespace, blanks and repeats in
+ * the requested features must not change the result on either path.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:property-features;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "rate-limit.enabled=false"
+})
+class PropertyFeatureFilterTest {
+
+    private static final String CITY = "Featureville";
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static boolean created;
+
+    @BeforeEach
+    void setUp() {
+        if (!created) {
+            listing("Both", 100, "Pool", "Garage");
+            listing("Pool only", 200, " pool ");
+            listing("Neither", 300);
+            created = true;
+        }
+    }
+
+    @Test
+    void featuresAreMatchedRegardlessOfCaseWhitespaceAndRepeats() {
+        assertEquals(List.of("Both", "Pool only"), indexed(Arrays.asList(" POOL ", "", "pool", null), "all"));
+        assertEquals(List.of("Both", "Pool only"), scrolled(Arrays.asList(" POOL ", "", "pool", null), "all"));
+        assertEquals(List.of("Both"), indexed(List.of("pool", "GARAGE"), "all"));
+        assertEquals(List.of("Both"), scrolled(List.of("pool", "GARAGE"), "all"));
+        assertEquals(List.of("Both", "Pool only"), indexed(List.of("pool", "GARAGE"), "any"));
+        assertEquals(List.of("Both", "Pool only"), scrolled(List.of("pool", "GARAGE"), "any"));
+    }
+
+    @Test
+    void blankFeaturesMeanNoFeatureFilter() {
+        List<String> all = List.of("Both", "Pool only", "Neither");
+        assertEquals(all, indexed(List.of(" ", ""), "all"));
+        assertEquals(all, scrolled(List.of(" ", ""), "all"));
+        assertEquals(all, indexed(List.of(" "), "any"));
+        assertEquals(all, scrolled(List.of(" "), "any"));
+        assertEquals(3, inTransaction(() -> propertyService.getPropertyFacets(null, null, null, null, null, CITY,
+                List.of(" "), "all", 0, 10, "price", "asc").getProperties().getTotalElements()));
+    }
+
+    private List<String> indexed(List<String> features, String featureMatch) {
+        return propertyService.filterPropertyCards(null, null, null, null, null, CITY, features, featureMatch,
+                0, 10, "price", "asc").getContent().stream().map(PropertyCardDto::getTitle).collect(Collectors.toList());
+    }
+
+    private List<String> scrolled(List<String> features, String featureMatch) {
+        return inTransaction(() -> propertyService.filterPropertiesByCursor(null, null, null, null, null, CITY,
+                features, featureMatch, null, 10, "price", "asc")
+                .getContent().stream().map(PropertyDto::getTitle).collect(Collectors.toList()));
+    }
+
+    // As open-in-view provides for a request, so full DTOs can load their collections
+    private <T> T inTransaction(Supplier<T> call) {
+        return new TransactionTemplate(transactionManager).execute(status -> call.get());
+    }
+
+    private void listing(String title, int price, String... features) {
+        PropertyDto property = new PropertyDto();
+        property.setTitle(title);
+        property.setDescription("Description");
+        property.setPrice(new BigDecimal(price));
+        property.setType(PropertyType.HOUSE);
+        property.setAddress("1 Main St");
+        property.setCity(CITY);
+        property.setState("IL");
+        property.setZipCode("62701");
+        property.setBedrooms(3);
+        property.setBathrooms(2);
+        property.setFeatures(List.of(features));
+        propertyService.createProperty(property);
+    }
+}
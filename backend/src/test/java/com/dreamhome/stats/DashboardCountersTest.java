@@ -0,0 +1,103 @@
+package com.dreamhome.stats;
+
+import com.dreamhome.entity.InquiryStatus;
+import com.dreamhome.entity.Property;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+import com.dreamhome.entity.Role;
+import com.dreamhome.repository.InquiryRepository;
+import com.dreamhome.repository.PropertyRepository;
+import com.dreamhome.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DashboardCounters reconciliation against mocked repositories, with the
+ * queries run inline: drift is corrected to the database counts, and a
+ * change applied while a count query runs is kept on top of its result.
+ */
+class DashboardCountersTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PropertyRepository propertyRepository = mock(PropertyRepository.class);
+    private final InquiryRepository inquiryRepository = mock(InquiryRepository.class);
+    private final ParallelQueries parallelQueries = mock(ParallelQueries.class);
+    private final DashboardCounters counters = new DashboardCounters();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(parallelQueries.submit(anyString(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+        when(parallelQueries.await(anyString(), any())).thenAnswer(invocation ->
+                Optional.ofNullable(((CompletableFuture<Object>) invocation.getArgument(1)).join()));
+        when(userRepository.countGroupedByRoleAndActive()).thenReturn(List.of(
+                new Object[]{Role.ADMIN, true, 1L}, new Object[]{Role.USER, true, 3L}, new Object[]{Role.USER, false, 2L}));
+        when(inquiryRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(new Object[]{InquiryStatus.PENDING, 4L}));
+        when(userRepository.findTop5ByOrderByCreatedAtDesc()).thenReturn(List.of());
+        when(propertyRepository.findRecentCards(any())).thenReturn(List.of());
+
+        ReflectionTestUtils.setField(counters, "userRepository", userRepository);
+        ReflectionTestUtils.setField(counters, "propertyRepository", propertyRepository);
+        ReflectionTestUtils.setField(counters, "inquiryRepository", inquiryRepository);
+        ReflectionTestUtils.setField(counters, "parallelQueries", parallelQueries);
+    }
+
+    @Test
+    void reconcileCorrectsDriftToTheDatabaseCounts() {
+        when(propertyRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{PropertyStatus.AVAILABLE, 5L}, new Object[]{PropertyStatus.SOLD, 2L}));
+        // Drift in both directions before the first reconciliation
+        counters.propertyInserted(listing(PropertyStatus.PENDING));
+        counters.inquiryDeleted(InquiryStatus.RESPONDED);
+
+        counters.reconcile();
+
+        assertEquals(6, counters.totalUsers());
+        assertEquals(4, counters.activeUsers());
+        assertEquals(5, counters.usersWithRole(Role.USER));
+        assertEquals(5, counters.propertiesWithStatus(PropertyStatus.AVAILABLE));
+        assertEquals(0, counters.propertiesWithStatus(PropertyStatus.PENDING));
+        assertEquals(7, counters.totalProperties());
+        assertEquals(4, counters.inquiriesWithStatus(InquiryStatus.PENDING));
+        assertEquals(0, counters.inquiriesWithStatus(InquiryStatus.RESPONDED));
+    }
+
+    @Test
+    void changeAppliedWhileTheCountRunsIsKept() {
+        when(propertyRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{PropertyStatus.AVAILABLE, 5L}));
+        counters.reconcile();
+
+        // The database gains a listing the counters have not heard of, and another is
+        // inserted and applied after the count has read the table but before it returns
+        when(propertyRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            counters.propertyInserted(listing(PropertyStatus.AVAILABLE));
+            return List.<Object[]>of(new Object[]{PropertyStatus.AVAILABLE, 6L});
+        });
+        counters.reconcile();
+
+        assertEquals(7, counters.propertiesWithStatus(PropertyStatus.AVAILABLE));
+        assertEquals(7, counters.totalProperties());
+    }
+
+    private static Property listing(PropertyStatus status) {
+        Property property = new Property("Listing", "Description", new BigDecimal("100000"), PropertyType.HOUSE,
+                "1 Main St", "Springfield", "IL", "62701");
+        property.setStatus(status);
+        return property;
+    }
+}
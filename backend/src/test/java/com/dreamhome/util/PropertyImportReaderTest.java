@@ -0,0 +1,192 @@
+package com.dreamhome.util;
+
+import com.dreamhome.dto.PropertyDto;
+import com.dreamhome.entity.PropertyStatus;
+import com.dreamhome.entity.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PropertyImportReader on hand-written and exported files: RFC 4180
+ * quoting, header matching, and malformed records reported as row errors
+ * without losing the rows after them.
+ */
+class PropertyImportReaderTest {
+
+    private static final String HEADER = "title,description,price,type,address,city,state,zipCode";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void quotedCellsKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        List<PropertyImportReader.Row> rows = readCsv(HEADER + "\n"
+                + "\"Loft, top floor\",\"Says \"\"wow\"\"\nand more\",250000,house,1 Main St,Springfield,IL,62701\r\n"
+                + "Cabin,Quiet,99.5,CONDO,2 Elm St,Shelbyville,IL,62702\n");
+
+        assertEquals(2, rows.size());
+        PropertyDto loft = rows.get(0).getProperty();
+        assertEquals("Loft, top floor", loft.getTitle());
+        assertEquals("Says \"wow\"\nand more", loft.getDescription());
+        assertEquals(new BigDecimal("250000"), loft.getPrice());
+        assertEquals(PropertyType.HOUSE, loft.getType());
+        assertEquals("62701", loft.getZipCode());
+        assertEquals(2, rows.get(1).getNumber());
+        assertEquals(PropertyType.CONDO, rows.get(1).getProperty().getType());
+    }
+
+    @Test
+    void columnsAreMatchedByHeaderNameInAnyOrderAndCase() throws IOException {
+        List<PropertyImportReader.Row> rows = readCsv(
+                "ZIPCODE, City ,state,address,type,price,description,title,id,features,status,unknown\n"
+                        + "62701,Springfield,IL,1 Main St,HOUSE,100,Nice,Home,42,Pool| Garage ||,SOLD,x\n");
+
+        PropertyDto home = rows.get(0).getProperty();
+        assertEquals("Home", home.getTitle());
+        assertEquals("Springfield", home.getCity());
+        assertEquals("62701", home.getZipCode());
+        assertEquals(PropertyStatus.SOLD, home.getStatus());
+        assertEquals(List.of("Pool", "Garage"), home.getFeatures());
+        // Ids are assigned on import, never taken from the file
+        assertNull(home.getId());
+    }
+
+    @Test
+    void missingRequiredColumnRejectsTheFile() {
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> readCsv("title,description,price,type,address,city,state\n"));
+        assertEquals("Import file is missing the required column: zipCode", error.getMessage());
+        assertThrows(RuntimeException.class, () -> readCsv(""));
+    }
+
+    @Test
+    void badCellsAreReportedPerRow() throws IOException {
+        List<PropertyImportReader.Row> rows = readCsv(HEADER + ",bedrooms\n"
+                + "A,d,abc,HOUSE,a,c,s,z,1\n"
+                + "B,d,1,CASTLE,a,c,s,z,1\n"
+                + "C,d,1,HOUSE,a,c,s,z,two\n"
+                + "\n"
+                + "D,d,1,HOUSE,a,c,s,z,3\n");
+
+        assertEquals(4, rows.size());
+        assertEquals("price: not a number: abc", rows.get(0).getError());
+        assertTrue(rows.get(1).getError().startsWith("type: unknown value: CASTLE"), rows.get(1).getError());
+        assertEquals("bedrooms: not an integer: two", rows.get(2).getError());
+        // Blank lines are skipped without using up a row number
+        assertTrue(rows.get(3).isValid());
+        assertEquals(4, rows.get(3).getNumber());
+        assertEquals(3, rows.get(3).getProperty().getBedrooms());
+    }
+
+    @Test
+    void unclosedQuoteFailsOnlyItsOwnLine() throws IOException {
+        List<PropertyImportReader.Row> rows = readCsv(HEADER + "\n"
+                + "A,d,1,HOUSE,a,c,s,z\n"
+                + "B,\"d,1,HOUSE,a,c,s,z\n"
+                + "C,d,1,HOUSE,a,c,s,z\n");
+
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).isValid());
+        assertEquals("Unclosed quote", rows.get(1).getError());
+        assertEquals("C", rows.get(2).getProperty().getTitle());
+        assertEquals(3, rows.get(2).getNumber());
+    }
+
+    @Test
+    void overlongRecordIsCappedAndReadingResumes() throws IOException {
+        // The stray quote would otherwise swallow everything up to the quote near the end
+        StringBuilder csv = new StringBuilder(HEADER).append('\n').append("A,\"d,1,HOUSE,a,c,s,z\n");
+        String row = "B,d,1,HOUSE,a,c,s,z\n";
+        while (csv.length() < PropertyImportReader.MAX_RECORD_LENGTH + 100) {
+            csv.append(row);
+        }
+        csv.append("C,\"d\",1,HOUSE,a,c,s,z\n");
+
+        List<PropertyImportReader.Row> rows = readCsv(csv.toString());
+
+        assertTrue(rows.get(0).getError().startsWith("Record is longer than"), rows.get(0).getError());
+        assertTrue(rows.subList(1, rows.size()).stream().allMatch(PropertyImportReader.Row::isValid));
+        assertEquals("C", rows.get(rows.size() - 1).getProperty().getTitle());
+    }
+
+    @Test
+    void exportedCsvReadsBack() throws IOException {
+        PropertyDto original = new PropertyDto();
+        original.setId(7L);
+        original.setTitle("Villa \"Sunset\", sea view");
+        original.setDescription("Line one\nLine two\r\nLine three");
+        original.setPrice(new BigDecimal("1250000.50"));
+        original.setType(PropertyType.VILLA);
+        original.setStatus(PropertyStatus.AVAILABLE);
+        original.setAddress("9 Beach Rd");
+        original.setCity("Malibu");
+        original.setState("CA");
+        original.setZipCode("90265");
+        original.setBedrooms(5);
+        original.setLatitude(34.03);
+        original.setLongitude(-118.78);
+        original.setIsFeatured(true);
+        original.setImageUrls(List.of("https://img/1.jpg", "https://img/2.jpg"));
+        original.setFeatures(List.of("Pool", "Sea view"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PropertyExportWriter writer = new PropertyExportWriter(PropertyFileFormat.CSV, out, objectMapper);
+        writer.writeHeader();
+        writer.write(original);
+        writer.flush();
+
+        List<PropertyImportReader.Row> rows = read(PropertyFileFormat.CSV, out.toString(StandardCharsets.UTF_8));
+        PropertyDto copy = rows.get(0).getProperty();
+        assertEquals(original.getTitle(), copy.getTitle());
+        assertEquals(original.getDescription(), copy.getDescription());
+        assertEquals(original.getPrice(), copy.getPrice());
+        assertEquals(original.getType(), copy.getType());
+        assertEquals(original.getLatitude(), copy.getLatitude());
+        assertEquals(original.getIsFeatured(), copy.getIsFeatured());
+        assertEquals(original.getImageUrls(), copy.getImageUrls());
+        assertEquals(original.getFeatures(), copy.getFeatures());
+    }
+
+    @Test
+    void ndjsonReportsInvalidLinesIncludingNull() throws IOException {
+        List<PropertyImportReader.Row> rows = read(PropertyFileFormat.NDJSON,
+                "{\"id\":5,\"title\":\"A\",\"type\":\"HOUSE\"}\n"
+                        + "\n"
+                        + "null\n"
+                        + "{\"title\":\n"
+                        + "{\"title\":\"B\"}\n");
+
+        assertEquals(4, rows.size());
+        assertEquals("A", rows.get(0).getProperty().getTitle());
+        assertNull(rows.get(0).getProperty().getId());
+        assertEquals(2, rows.get(1).getNumber());
+        assertTrue(rows.get(1).getError().startsWith("Invalid JSON"), rows.get(1).getError());
+        assertTrue(rows.get(2).getError().startsWith("Invalid JSON"), rows.get(2).getError());
+        assertEquals("B", rows.get(3).getProperty().getTitle());
+    }
+
+    private List<PropertyImportReader.Row> readCsv(String content) throws IOException {
+        return read(PropertyFileFormat.CSV, content);
+    }
+
+    private List<PropertyImportReader.Row> read(PropertyFileFormat format, String content) throws IOException {
+        PropertyImportReader reader = new PropertyImportReader(format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        List<PropertyImportReader.Row> rows = new ArrayList<>();
+        PropertyImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -157,17 +157,17 @@ const ManageInquiries = () => {
                         <td className="px-6 py-4 whitespace-nowrap">
                           <div>
                             <div className="text-sm font-medium text-gray-900">
-                              {inquiry.user.firstName} {inquiry.user.lastName}
+                              {inquiry.userFirstName} {inquiry.userLastName}
                             </div>
-                            <div className="text-sm text-gray-500">{inquiry.user.email}</div>
+                            <div className="text-sm text-gray-500">{inquiry.userEmail}</div>
                           </div>
                         </td>
                         <td className="px-6 py-4 whitespace-nowrap">
                           <div className="text-sm font-medium text-gray-900">
-                            {inquiry.property.title}
+                            {inquiry.propertyTitle}
                           </div>
                           <div className="text-sm text-gray-500">
-                            {inquiry.property.city}, {inquiry.property.state}
+                            {inquiry.propertyCity}, {inquiry.propertyState}
                           </div>
                         </td>
                         <td className="px-6 py-4">
@@ -23,15 +23,101 @@ api.interceptors.request.use(
   }
 );
 
+// How long to wait for another tab to store the pair it just received
+const ROTATION_HANDOFF_TIMEOUT = 5000;
+
+// Whether another tab has replaced the refresh token this one was about to spend
+const rotatedElsewhere = (spentToken) => {
+  const current = localStorage.getItem('refreshToken');
+  return !!current && current !== spentToken;
+};
+
+// Resolves with the other tab's access token once it has stored its pair
+const waitForRotation = (spentToken) =>
+  new Promise((resolve, reject) => {
+    const done = () => {
+      window.removeEventListener('storage', onStorage);
+      clearTimeout(timer);
+    };
+    const onStorage = (event) => {
+      // authToken is written before refreshToken, so both are current here
+      if (event.key === 'refreshToken' && rotatedElsewhere(spentToken)) {
+        done();
+        resolve(localStorage.getItem('authToken'));
+      }
+    };
+    const timer = setTimeout(() => {
+      done();
+      reject(new Error('Refresh token was rotated by another tab'));
+    }, ROTATION_HANDOFF_TIMEOUT);
+    window.addEventListener('storage', onStorage);
+    if (rotatedElsewhere(spentToken)) {
+      done();
+      resolve(localStorage.getItem('authToken'));
+    }
+  });
+
+const rotateTokens = async (spentToken) => {
+  // Another tab refreshed while this one waited for the lock
+  if (rotatedElsewhere(spentToken)) {
+    return localStorage.getItem('authToken');
+  }
+  try {
+    const response = await axios.post(`${api.defaults.baseURL}/auth/refresh`, {
+      refreshToken: spentToken,
+    });
+    const { token, refreshToken } = response.data;
+    localStorage.setItem('authToken', token);
+    localStorage.setItem('refreshToken', refreshToken);
+    return token;
+  } catch (error) {
+    // 409: another tab spent the same token a moment ago; the session is intact
+    if (error.response?.status === 409) {
+      return waitForRotation(spentToken);
+    }
+    throw error;
+  }
+};
+
+// Tabs share the tokens in localStorage, so they take turns refreshing
+const withRefreshLock = (task) =>
+  navigator.locks ? navigator.locks.request('dreamhome-token-refresh', task) : task();
+
+// One refresh at a time; concurrent 401s wait for the same one
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const spentToken = localStorage.getItem('refreshToken');
+    refreshPromise = withRefreshLock(() => rotateTokens(spentToken)).finally(() => {
+      refreshPromise = null;
+    });
+  }
+  return refreshPromise;
+};
+
 // Response interceptor to handle errors
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error) => {
+    const request = error.config;
     if (error.response?.status === 401) {
-      // Token expired or invalid
+      // Access token expired: renew it once with the refresh token and retry
+      if (request && !request._retried && !request.url?.startsWith('/auth/')
+          && localStorage.getItem('refreshToken')) {
+        request._retried = true;
+        try {
+          const token = await refreshAccessToken();
+          request.headers.Authorization = `Bearer ${token}`;
+          return api(request);
+        } catch (refreshError) {
+          // Refresh token expired or revoked; fall through to log out
+        }
+      }
       localStorage.removeItem('authToken');
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('user');
       window.location.href = '/login';
     }
@@ -5,10 +5,11 @@ export const authService = {
   login: async (credentials) => {
     try {
       const response = await api.post('/auth/login', credentials);
-      const { token, user } = response.data;
+      const { token, refreshToken, user } = response.data;
       
-      // Store token and user data
+      // Store tokens and user data
       localStorage.setItem('authToken', token);
+      localStorage.setItem('refreshToken', refreshToken);
       localStorage.setItem('user', JSON.stringify(user));
       
       return response.data;
@@ -21,10 +22,11 @@ export const authService = {
   register: async (userData) => {
     try {
       const response = await api.post('/auth/register', userData);
-      const { token, user } = response.data;
+      const { token, refreshToken, user } = response.data;
       
-      // Store token and user data
+      // Store tokens and user data
       localStorage.setItem('authToken', token);
+      localStorage.setItem('refreshToken', refreshToken);
       localStorage.setItem('user', JSON.stringify(user));
       
       return response.data;
@@ -33,9 +35,14 @@ export const authService = {
     }
   },
 
-  // Logout user
+  // Logout user; the server revokes the session without being awaited
   logout: () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      api.post('/auth/logout', { refreshToken }).catch(() => {});
+    }
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   },
 